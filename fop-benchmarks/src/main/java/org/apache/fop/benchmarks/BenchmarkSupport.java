@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.apps.MimeConstants;
+
+/**
+ * Shared setup for the benchmarks.
+ */
+public final class BenchmarkSupport {
+
+    /** System property pointing to an optional FOP configuration file. */
+    public static final String CONFIG_PROPERTY = "fop.benchmark.config";
+
+    /** System property pointing to the TrueType font used by the font benchmarks. */
+    public static final String FONT_PROPERTY = "fop.benchmark.font";
+
+    /**
+     * System property pointing to the TrueType or OpenType CJK font used by the CJK corpus and
+     * the CJK font benchmarks. FOP ships no CJK font, so these benchmarks fail without it.
+     */
+    public static final String CJK_FONT_PROPERTY = "fop.benchmark.cjk.font";
+
+    /** The font-family under which the CJK font is registered. */
+    static final String CJK_FONT_FAMILY = "BenchmarkCJK";
+
+    /** System property pointing to the PKCS#12 keystore used by the signing benchmark. */
+    public static final String KEYSTORE_PROPERTY = "fop.benchmark.keystore";
+
+    private static final String DEFAULT_FONT = "../fop/test/resources/fonts/ttf/DejaVuLGCSerif.ttf";
+
+    private static final String DEFAULT_KEYSTORE
+            = "../fop-core/src/test/resources/org/apache/fop/pdf/keystore.pkcs12";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates a FopFactory, using the configuration file given by {@link #CONFIG_PROPERTY} if set.
+     * The font given by {@link #CJK_FONT_PROPERTY} is registered for the intermediate format
+     * and PDF as {@link #CJK_FONT_FAMILY}.
+     * @return the FopFactory
+     * @throws IOException if the configuration file cannot be read
+     * @throws SAXException if the configuration file cannot be parsed
+     */
+    public static FopFactory newFopFactory() throws IOException, SAXException {
+        return newFopFactory("");
+    }
+
+    /**
+     * Creates a FopFactory like {@link #newFopFactory()}, adding the given settings to the
+     * configuration of the PDF renderer. Benchmarks comparing PDF settings use this so that
+     * all runs share the same base configuration (fonts etc.).
+     * @param pdfRendererSettings XML elements to add to the PDF renderer configuration
+     * @return the FopFactory
+     * @throws IOException if the configuration file cannot be read
+     * @throws SAXException if the configuration cannot be parsed
+     */
+    public static FopFactory newFopFactory(String pdfRendererSettings) throws IOException, SAXException {
+        DocumentBuilder builder;
+        try {
+            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+        String config = System.getProperty(CONFIG_PROPERTY);
+        Document doc;
+        URI baseURI;
+        if (config != null) {
+            File configFile = new File(config);
+            doc = builder.parse(configFile);
+            baseURI = configFile.toURI();
+        } else {
+            doc = builder.parse(new InputSource(new StringReader("<fop version=\"1.0\"/>")));
+            baseURI = new File(".").toURI();
+        }
+        Element renderers = getChild(doc.getDocumentElement(), "renderers", null);
+        Element renderer = getChild(renderers, "renderer", MimeConstants.MIME_PDF);
+        String cjkFont = System.getProperty(CJK_FONT_PROPERTY);
+        if (cjkFont != null) {
+            addFont(renderer, getCJKFontFile(), CJK_FONT_FAMILY);
+            addFont(getChild(renderers, "renderer", MimeConstants.MIME_FOP_IF), getCJKFontFile(),
+                    CJK_FONT_FAMILY);
+        }
+        Element settings = builder.parse(new InputSource(
+                new StringReader("<settings>" + pdfRendererSettings + "</settings>"))).getDocumentElement();
+        for (Node child = settings.getFirstChild(); child != null; child = child.getNextSibling()) {
+            renderer.appendChild(doc.importNode(child, true));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            TransformerFactory.newInstance().newTransformer().transform(
+                    new DOMSource(doc), new StreamResult(out));
+        } catch (TransformerException e) {
+            throw new IOException(e);
+        }
+        return FopFactory.newInstance(baseURI, new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void addFont(Element renderer, File file, String family) {
+        Element font = renderer.getOwnerDocument().createElement("font");
+        font.setAttribute("embed-url", file.toURI().toString());
+        font.setAttribute("kerning", "yes");
+        Element triplet = renderer.getOwnerDocument().createElement("font-triplet");
+        triplet.setAttribute("name", family);
+        triplet.setAttribute("style", "normal");
+        triplet.setAttribute("weight", "normal");
+        font.appendChild(triplet);
+        getChild(renderer, "fonts", null).appendChild(font);
+    }
+
+    private static Element getChild(Element parent, String name, String mime) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && name.equals(child.getNodeName())
+                    && (mime == null || mime.equals(((Element) child).getAttribute("mime")))) {
+                return (Element) child;
+            }
+        }
+        Element child = parent.getOwnerDocument().createElement(name);
+        if (mime != null) {
+            child.setAttribute("mime", mime);
+        }
+        parent.appendChild(child);
+        return child;
+    }
+
+    /**
+     * Returns the TrueType font file used by the font benchmarks.
+     * @return the font file
+     */
+    public static File getFontFile() {
+        return new File(System.getProperty(FONT_PROPERTY, DEFAULT_FONT));
+    }
+
+    /**
+     * Returns the PKCS#12 keystore used by the signing benchmark.
+     * @return the keystore file
+     */
+    public static File getKeystoreFile() {
+        return new File(System.getProperty(KEYSTORE_PROPERTY, DEFAULT_KEYSTORE));
+    }
+
+    /**
+     * Returns the CJK font file given by {@link #CJK_FONT_PROPERTY}.
+     * @return the font file
+     * @throws IllegalStateException if the property is not set or the file does not exist
+     */
+    public static File getCJKFontFile() {
+        String font = System.getProperty(CJK_FONT_PROPERTY);
+        if (font == null) {
+            throw new IllegalStateException("The CJK benchmarks need a CJK font, set -D"
+                    + CJK_FONT_PROPERTY + " to a TrueType or OpenType font file");
+        }
+        File file = new File(font);
+        if (!file.isFile()) {
+            throw new IllegalStateException("CJK font not found: " + file);
+        }
+        return file;
+    }
+}
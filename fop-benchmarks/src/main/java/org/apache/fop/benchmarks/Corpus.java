@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Base64;
+
+import javax.imageio.ImageIO;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Representative FO documents used by the benchmarks. The documents are generated in
+ * memory so that their size can be scaled without shipping large files.
+ */
+public enum Corpus {
+
+    /** A single table with many rows, the typical invoice/statement shape. */
+    LONG_TABLE {
+        String body() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("<fo:table table-layout=\"fixed\" width=\"100%\">")
+                    .append("<fo:table-column column-width=\"20%\"/>")
+                    .append("<fo:table-column column-width=\"60%\"/>")
+                    .append("<fo:table-column column-width=\"20%\"/>")
+                    .append("<fo:table-header><fo:table-row font-weight=\"bold\">")
+                    .append(cell("No.")).append(cell("Description")).append(cell("Amount"))
+                    .append("</fo:table-row></fo:table-header><fo:table-body>");
+            for (int i = 0; i < 2000; i++) {
+                sb.append("<fo:table-row>")
+                        .append(cell(Integer.toString(i)))
+                        .append(cell(WORDS[i % WORDS.length] + " " + WORDS[(i * 7) % WORDS.length]))
+                        .append(cell((i * 37 % 10000) + ".00"))
+                        .append("</fo:table-row>");
+            }
+            return sb.append("</fo:table-body></fo:table>").toString();
+        }
+    },
+
+    /** Justified paragraphs of Latin text, exercising line breaking. */
+    DENSE_TEXT {
+        String body() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 300; i++) {
+                sb.append("<fo:block text-align=\"justify\" space-after=\"6pt\">");
+                for (int j = 0; j < 80; j++) {
+                    sb.append(WORDS[(i + j * 3) % WORDS.length]).append(' ');
+                }
+                sb.append("</fo:block>");
+            }
+            return sb.toString();
+        }
+    },
+
+    /**
+     * CJK paragraphs set in the font given by {@link BenchmarkSupport#CJK_FONT_PROPERTY}.
+     * Creating the document fails if no CJK font is given, rather than measuring the
+     * missing-glyph path.
+     */
+    CJK {
+        String body() {
+            BenchmarkSupport.getCJKFontFile();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 300; i++) {
+                sb.append("<fo:block font-family=\"").append(BenchmarkSupport.CJK_FONT_FAMILY)
+                        .append("\" text-align=\"justify\" space-after=\"6pt\">");
+                for (int j = 0; j < 400; j++) {
+                    sb.append((char) (0x4E00 + ((i * 31 + j * 17) % 0x5000)));
+                }
+                sb.append("</fo:block>");
+            }
+            return sb.toString();
+        }
+    },
+
+    /**
+     * Many images: 1000 distinct PNG images, each referenced once through its own data URI.
+     * The benchmarks clear the image cache before each run, so every image is loaded.
+     */
+    IMAGES {
+        String body() {
+            StringBuilder sb = new StringBuilder();
+            String[] images = createImages(1000);
+            for (int i = 0; i < images.length; i++) {
+                sb.append("<fo:block>").append(WORDS[i % WORDS.length])
+                        .append(" <fo:external-graphic content-width=\"2cm\" src=\"")
+                        .append(images[i]).append("\"/></fo:block>");
+            }
+            return sb.toString();
+        }
+    };
+
+    static final String[] WORDS = ("Lorem ipsum dolor sit amet consectetur adipiscing elit sed do"
+            + " eiusmod tempor incididunt ut labore et dolore magna aliqua Ut enim ad minim veniam quis"
+            + " nostrud exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat Duis aute"
+            + " irure dolor in reprehenderit in voluptate velit esse cillum dolore eu fugiat nulla"
+            + " pariatur Excepteur sint occaecat cupidatat non proident sunt in culpa qui officia"
+            + " deserunt mollit anim id est laborum").split(" ");
+
+    private String fo;
+
+    abstract String body();
+
+    /**
+     * Returns the complete FO document.
+     * @return the FO document as a string
+     */
+    public synchronized String getFO() {
+        if (fo == null) {
+            fo = "<fo:root xmlns:fo=\"http://www.w3.org/1999/XSL/Format\">"
+                    + "<fo:layout-master-set><fo:simple-page-master master-name=\"A4\""
+                    + " page-width=\"210mm\" page-height=\"297mm\" margin=\"2cm\">"
+                    + "<fo:region-body/></fo:simple-page-master></fo:layout-master-set>"
+                    + "<fo:page-sequence master-reference=\"A4\">"
+                    + "<fo:flow flow-name=\"xsl-region-body\" font-size=\"10pt\">"
+                    + body()
+                    + "</fo:flow></fo:page-sequence></fo:root>";
+        }
+        return fo;
+    }
+
+    /**
+     * Returns a new {@link Source} for the FO document.
+     * @return the source
+     */
+    public Source newSource() {
+        return new StreamSource(new StringReader(getFO()));
+    }
+
+    private static String cell(String text) {
+        return "<fo:table-cell border=\"0.5pt solid black\" padding=\"2pt\"><fo:block>"
+                + text + "</fo:block></fo:table-cell>";
+    }
+
+    private static String[] createImages(int count) {
+        String[] uris = new String[count];
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setColor(new Color(Color.HSBtoRGB(i / (float) count, 0.6f, 0.9f)));
+            g2d.fillRect(0, 0, 64, 64);
+            g2d.setColor(Color.BLACK);
+            g2d.drawOval(8, 8, 48, 48);
+            //Neighbouring hues may round to the same colour, the line makes every image unique
+            g2d.drawLine(0, i % 64, 63, (i / 64) % 64);
+            g2d.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "png", out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            uris[i] = "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+        }
+        return uris;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.apache.fop.apps.FOUserAgent;
+import org.apache.fop.apps.Fop;
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.apps.MimeConstants;
+import org.apache.fop.fo.FOEventHandler;
+
+/**
+ * Measures FO parsing into the FO tree, including property list resolution, and
+ * the full FO to intermediate format run (FO tree, line and page breaking, area tree).
+ * <p>
+ * To compare the memory used while building the FO tree, run with the GC profiler
+ * ({@code -prof gc}) and look at {@code gc.alloc.rate.norm} of {@link #buildFOTree()},
+ * which gives the bytes allocated per document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FOTreeBenchmark {
+
+    @Param({"LONG_TABLE", "DENSE_TEXT", "CJK", "IMAGES"})
+    private Corpus corpus;
+
+    private FopFactory fopFactory;
+
+    private TransformerFactory transformerFactory;
+
+    @Setup
+    public void setUp() throws Exception {
+        fopFactory = BenchmarkSupport.newFopFactory();
+        transformerFactory = TransformerFactory.newInstance();
+        corpus.getFO();
+    }
+
+    /**
+     * Empties the image cache so that every run loads the images of the IMAGES corpus.
+     */
+    @Setup(Level.Invocation)
+    public void clearImageCache() {
+        fopFactory.getImageManager().getCache().clearCache();
+    }
+
+    /**
+     * Builds the FO tree only; the FO events are swallowed so no layout takes place.
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public void buildFOTree() throws Exception {
+        FOUserAgent userAgent = fopFactory.newFOUserAgent();
+        userAgent.setFOEventHandlerOverride(new FOEventHandler(userAgent) { });
+        run(userAgent);
+    }
+
+    /**
+     * Lays out the document and serializes the intermediate format to a null stream.
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public void layout() throws Exception {
+        run(fopFactory.newFOUserAgent());
+    }
+
+    private void run(FOUserAgent userAgent) throws Exception {
+        Fop fop = fopFactory.newFop(MimeConstants.MIME_FOP_IF, userAgent, NullOutputStream.INSTANCE);
+        Transformer transformer = transformerFactory.newTransformer();
+        transformer.transform(corpus.newSource(), new SAXResult(fop.getDefaultHandler()));
+    }
+}
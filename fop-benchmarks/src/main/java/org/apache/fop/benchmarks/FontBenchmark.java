@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.fop.apps.io.ResourceResolverFactory;
+import org.apache.fop.fonts.CustomFont;
+import org.apache.fop.fonts.EmbeddingMode;
+import org.apache.fop.fonts.EncodingMode;
+import org.apache.fop.fonts.Font;
+import org.apache.fop.fonts.FontLoader;
+import org.apache.fop.fonts.FontTriplet;
+import org.apache.fop.fonts.FontUris;
+import org.apache.fop.fonts.truetype.FontFileReader;
+import org.apache.fop.fonts.truetype.OFFontLoader;
+import org.apache.fop.fonts.truetype.TTFSubSetFile;
+
+/**
+ * Measures font metrics lookups done during layout (word widths and kerning) and
+ * TrueType subsetting done when the font is embedded, on two Latin fonts and a CJK font.
+ * The CJK font is given by {@link BenchmarkSupport#CJK_FONT_PROPERTY}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FontBenchmark {
+
+    /** The scripts measured, each with its font and a sample text. */
+    public enum Script {
+
+        /** Latin text with many kerning pairs. */
+        LATIN("AVATAR Wavy Typography, LTA: \"Yo! To Vo.\" Quick brown fox jumps"
+                + " over the lazy dog; WAVE, Tj, P.A., F., r., y. Everything you need to know.") {
+            File getFontFile() {
+                return BenchmarkSupport.getFontFile();
+            }
+        },
+
+        /** The same Latin text on a monospaced font, which has no kerning table. */
+        LATIN_MONO(LATIN.text) {
+            File getFontFile() {
+                return new File("../fop/test/resources/fonts/ttf/DroidSansMono.ttf");
+            }
+        },
+
+        /** Chinese and Japanese text with full-width punctuation. */
+        CJK("\u4e2d\u6587\u6392\u7248\u9700\u8981\u5904\u7406\u6807\u70b9\u7b26\u53f7"
+                + "\uff0c\u4f8b\u5982\uff1a\u300c\u5f15\u53f7\u300d\u3001\uff08\u62ec\u53f7\uff09"
+                + "\u548c\u53e5\u53f7\u3002 \u65e5\u672c\u8a9e\u306e\u6587\u7ae0\u3067\u306f"
+                + "\u3001\u304b\u306a\u3068\u6f22\u5b57\u304c\u6df7\u5728\u3057\u307e\u3059"
+                + "\u3002 \u6587\u5b57\u306e\u5e45\u3068\u30ab\u30fc\u30cb\u30f3\u30b0\u3002") {
+            File getFontFile() {
+                return BenchmarkSupport.getCJKFontFile();
+            }
+        };
+
+        private final String text;
+
+        Script(String text) {
+            this.text = text;
+        }
+
+        abstract File getFontFile();
+    }
+
+    @Param({"LATIN", "LATIN_MONO", "CJK"})
+    private Script script;
+
+    private String text;
+
+    private byte[] fontBytes;
+
+    private String header;
+
+    private Map<Integer, Integer> glyphs;
+
+    private Font font;
+
+    private String[] words;
+
+    @Setup
+    public void setUp() throws Exception {
+        File file = script.getFontFile();
+        fontBytes = Files.readAllBytes(file.toPath());
+        header = OFFontLoader.readHeader(new FontFileReader(new ByteArrayInputStream(fontBytes)));
+        glyphs = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 400; i++) {
+            glyphs.put(i, i);
+        }
+        CustomFont metrics = FontLoader.loadFont(new FontUris(file.toURI(), null), "", true,
+                EmbeddingMode.AUTO, EncodingMode.AUTO, true, false,
+                ResourceResolverFactory.createDefaultInternalResourceResolver(new File(".").toURI()),
+                false, false, false);
+        font = new Font(metrics.getFontName(), FontTriplet.DEFAULT_FONT_TRIPLET, metrics, 10000);
+        text = script.text;
+        words = text.split(" ");
+    }
+
+    /**
+     * Creates a TrueType subset of 400 glyphs.
+     * @return the subset
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public byte[] subsetTrueType() throws Exception {
+        TTFSubSetFile subset = new TTFSubSetFile();
+        subset.readFont(new FontFileReader(new ByteArrayInputStream(fontBytes)), "", header, glyphs);
+        return subset.getFontSubset();
+    }
+
+    /**
+     * Measures the width of each word.
+     * @return the total width
+     */
+    @Benchmark
+    public int wordWidth() {
+        int width = 0;
+        for (String word : words) {
+            width += font.getWordWidth(word);
+        }
+        return width;
+    }
+
+    /**
+     * Looks up the kerning of each character pair.
+     * @return the total kerning
+     */
+    @Benchmark
+    public int kerning() {
+        int kern = 0;
+        for (int i = 1; i < text.length(); i++) {
+            kern += font.getKernValue(text.charAt(i - 1), text.charAt(i));
+        }
+        return kern;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.fop.apps.io.InternalResourceResolver;
+import org.apache.fop.apps.io.ResourceResolverFactory;
+import org.apache.fop.fonts.EmbedFontInfo;
+import org.apache.fop.fonts.FontAdder;
+import org.apache.fop.fonts.FontCache;
+import org.apache.fop.fonts.FontCacheManagerFactory;
+import org.apache.fop.fonts.FontDetectorFactory;
+import org.apache.fop.fonts.FontManager;
+import org.apache.fop.fonts.autodetect.FontFileFinder;
+
+/**
+ * Measures font auto-detection at start-up: a cold start parses every font file, a warm
+ * start reads the font cache file and only checks the files' modification times. Both run
+ * with one thread and with the parallel parser. {@link #loadCache()} measures reading the
+ * cache file on its own.
+ * <p>
+ * The fonts are taken from the directory given by {@link #FONT_DIR_PROPERTY}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FontDetectionBenchmark {
+
+    /** System property pointing to the directory scanned for fonts. */
+    public static final String FONT_DIR_PROPERTY = "fop.benchmark.font.dir";
+
+    private static final String DEFAULT_FONT_DIR = "../fop/test/resources/fonts";
+
+    private final InternalResourceResolver resourceResolver
+            = ResourceResolverFactory.createDefaultInternalResourceResolver(new File(".").toURI());
+
+    private List<URL> fontFiles;
+
+    private File warmCacheFile;
+
+    private File coldCacheFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        fontFiles = new FontFileFinder(null).find(
+                new File(System.getProperty(FONT_DIR_PROPERTY, DEFAULT_FONT_DIR)));
+        warmCacheFile = File.createTempFile("fop-fonts", ".cache");
+        warmCacheFile.delete();
+        FontManager manager = newFontManager(warmCacheFile);
+        new FontAdder(manager, resourceResolver, null).add(fontFiles, new ArrayList<EmbedFontInfo>());
+        manager.saveCache();
+        coldCacheFile = new File(warmCacheFile.getPath() + ".cold");
+    }
+
+    @TearDown
+    public void tearDown() {
+        warmCacheFile.delete();
+    }
+
+    private FontManager newFontManager(File cacheFile) {
+        FontManager manager = new FontManager(resourceResolver, FontDetectorFactory.createDefault(),
+                FontCacheManagerFactory.createDefault());
+        manager.setCacheFile(cacheFile.toURI());
+        return manager;
+    }
+
+    /** The start-up conditions of {@link FontDetectionBenchmark#detect}. */
+    @State(Scope.Benchmark)
+    public static class Detection {
+
+        /** Whether the font cache file exists when detection starts. */
+        public enum Start { COLD, WARM }
+
+        @Param({"COLD", "WARM"})
+        private Start start;
+
+        @Param({"1", "8"})
+        private int threads;
+
+        private FontManager fontManager;
+
+        /**
+         * Creates a font manager without a loaded cache, the cache file is read on first use.
+         * @param benchmark the benchmark holding the font files
+         */
+        @Setup(Level.Invocation)
+        public void createFontManager(FontDetectionBenchmark benchmark) {
+            fontManager = benchmark.newFontManager(
+                    start == Start.WARM ? benchmark.warmCacheFile : benchmark.coldCacheFile);
+        }
+    }
+
+    /**
+     * Detects the fonts, reading the cache file first if there is one.
+     * @param detection the start-up conditions
+     * @return the number of fonts found
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public int detect(Detection detection) throws Exception {
+        FontAdder adder = new FontAdder(detection.fontManager, resourceResolver, null);
+        adder.setThreadCount(detection.threads);
+        List<EmbedFontInfo> fontInfos = new ArrayList<EmbedFontInfo>();
+        adder.add(fontFiles, fontInfos);
+        return fontInfos.size();
+    }
+
+    /**
+     * Reads the warm cache file without looking at the fonts.
+     * @return the cache
+     */
+    @Benchmark
+    public FontCache loadCache() {
+        return FontCache.loadFrom(warmCacheFile);
+    }
+}
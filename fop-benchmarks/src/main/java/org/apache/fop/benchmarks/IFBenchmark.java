@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.apache.fop.apps.FOUserAgent;
+import org.apache.fop.apps.Fop;
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.apps.MimeConstants;
+import org.apache.fop.render.intermediate.IFContext;
+import org.apache.fop.render.intermediate.IFDocumentHandler;
+import org.apache.fop.render.intermediate.IFParser;
+import org.apache.fop.render.intermediate.IFSerializer;
+import org.apache.fop.render.intermediate.IFUtil;
+
+/**
+ * Measures the rendering stages that start from a laid out document in the intermediate
+ * format: an {@link IFParser}/{@link IFSerializer} round-trip and IF to PDF, which
+ * includes the PDF painting and {@link org.apache.fop.pdf.PDFDocument#output}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IFBenchmark {
+
+    @Param({"LONG_TABLE", "DENSE_TEXT", "CJK", "IMAGES"})
+    private Corpus corpus;
+
+    private FopFactory fopFactory;
+
+    private TransformerFactory transformerFactory;
+
+    private byte[] intermediateFormat;
+
+    @Setup
+    public void setUp() throws Exception {
+        fopFactory = BenchmarkSupport.newFopFactory();
+        transformerFactory = TransformerFactory.newInstance();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Fop fop = fopFactory.newFop(MimeConstants.MIME_FOP_IF, fopFactory.newFOUserAgent(), out);
+        Transformer transformer = transformerFactory.newTransformer();
+        transformer.transform(corpus.newSource(), new SAXResult(fop.getDefaultHandler()));
+        intermediateFormat = out.toByteArray();
+    }
+
+    /**
+     * Empties the image cache so that every run loads the images of the IMAGES corpus.
+     */
+    @Setup(Level.Invocation)
+    public void clearImageCache() {
+        fopFactory.getImageManager().getCache().clearCache();
+    }
+
+    /**
+     * Parses the intermediate format and serializes it again.
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public void roundTrip() throws Exception {
+        FOUserAgent userAgent = fopFactory.newFOUserAgent();
+        IFSerializer serializer = new IFSerializer(new IFContext(userAgent));
+        serializer.setResult(new StreamResult(NullOutputStream.INSTANCE));
+        parse(serializer, userAgent);
+    }
+
+    /**
+     * Renders the intermediate format to PDF.
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public void renderPDF() throws Exception {
+        FOUserAgent userAgent = fopFactory.newFOUserAgent();
+        IFDocumentHandler handler = fopFactory.getRendererFactory().createDocumentHandler(
+                userAgent, MimeConstants.MIME_PDF);
+        IFUtil.setupFonts(handler);
+        handler.setResult(new StreamResult(NullOutputStream.INSTANCE));
+        parse(handler, userAgent);
+    }
+
+    private void parse(IFDocumentHandler handler, FOUserAgent userAgent) throws Exception {
+        IFParser parser = new IFParser();
+        parser.parse(new StreamSource(new ByteArrayInputStream(intermediateFormat)), handler, userAgent);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.apache.fop.pdf.PDFDocument;
+import org.apache.fop.pdf.PDFFilterList;
+import org.apache.fop.pdf.PDFPage;
+import org.apache.fop.pdf.PDFReference;
+import org.apache.fop.pdf.PDFStream;
+
+/**
+ * Measures {@link PDFDocument#output} on its own: the compression and serialization of a
+ * document whose pages and content streams have already been created. A new document is
+ * built before each invocation, as the streams release their data once written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PDFOutputBenchmark {
+
+    private static final int LINES_PER_PAGE = 60;
+
+    @Param({"20", "200"})
+    private int pages;
+
+    @Param({"false", "true"})
+    private boolean objectStreams;
+
+    private PDFDocument pdfDoc;
+
+    /**
+     * Builds the document to be written.
+     * @throws IOException if an error occurs
+     */
+    @Setup(Level.Invocation)
+    public void createDocument() throws IOException {
+        pdfDoc = new PDFDocument("");
+        pdfDoc.setObjectStreamsEnabled(objectStreams);
+        for (int i = 0; i < pages; i++) {
+            PDFPage page = pdfDoc.getFactory().makePage(pdfDoc.getResources(), 595, 842, i);
+            PDFStream contents = pdfDoc.getFactory().makeStream(PDFFilterList.CONTENT_FILTER, false);
+            for (int j = 0; j < LINES_PER_PAGE; j++) {
+                StringBuilder sb = new StringBuilder("BT /F1 10 Tf 72 ").append(770 - j * 12)
+                        .append(" Td (");
+                for (int k = 0; k < 12; k++) {
+                    sb.append(Corpus.WORDS[(i + j * 12 + k) % Corpus.WORDS.length]).append(' ');
+                }
+                contents.add(sb.append(") Tj ET\n").toString());
+            }
+            pdfDoc.registerObject(contents);
+            page.setContents(new PDFReference(contents));
+            pdfDoc.addObject(page);
+        }
+    }
+
+    /**
+     * Writes the document.
+     * @return the size of the document
+     * @throws IOException if an error occurs
+     */
+    @Benchmark
+    public long output() throws IOException {
+        CountingOutputStream out = new CountingOutputStream(NullOutputStream.INSTANCE);
+        pdfDoc.outputHeader(out);
+        pdfDoc.output(out);
+        pdfDoc.outputTrailer(out);
+        return out.getByteCount();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.benchmarks;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.apache.fop.apps.FOUserAgent;
+import org.apache.fop.apps.Fop;
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.apps.MimeConstants;
+import org.apache.fop.fo.FOEventHandler;
+import org.apache.fop.fo.FONode;
+import org.apache.fop.fo.FObj;
+import org.apache.fop.fo.PropertyList;
+import org.apache.fop.fo.StaticPropertyList;
+import org.apache.fop.fo.flow.Block;
+
+/**
+ * Measures property resolution on its own: for every block of the corpus, a new
+ * {@link StaticPropertyList} is filled from the block's attributes and bound to the block,
+ * which is what {@link FObj#processNode} does while the FO tree is built. The property lists
+ * of the ancestors are rebuilt once per run, as during parsing.
+ * <p>
+ * The FO tree is parsed once in the setup; parsing, the FO tree builder and layout are not
+ * part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PropertyListBenchmark {
+
+    @Param({"LONG_TABLE", "DENSE_TEXT", "CJK", "IMAGES"})
+    private Corpus corpus;
+
+    private final List<Block> blocks = new ArrayList<Block>();
+
+    private final Map<String, Attributes> attributes = new HashMap<String, Attributes>();
+
+    @Setup
+    public void setUp() throws Exception {
+        FopFactory fopFactory = BenchmarkSupport.newFopFactory();
+        FOUserAgent userAgent = fopFactory.newFOUserAgent();
+        userAgent.setFOEventHandlerOverride(new FOEventHandler(userAgent) {
+            public void startBlock(Block bl) {
+                blocks.add(bl);
+            }
+        });
+        Fop fop = fopFactory.newFop(MimeConstants.MIME_FOP_IF, userAgent, NullOutputStream.INSTANCE);
+        SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+        parserFactory.setNamespaceAware(true);
+        AttributeRecorder recorder = new AttributeRecorder();
+        recorder.setParent(parserFactory.newSAXParser().getXMLReader());
+        recorder.setContentHandler(fop.getDefaultHandler());
+        recorder.parse(new InputSource(new StringReader(corpus.getFO())));
+    }
+
+    /**
+     * Resolves and binds the properties of every block.
+     * @return the number of property lists created
+     * @throws Exception if an error occurs
+     */
+    @Benchmark
+    public int resolveProperties() throws Exception {
+        Map<FONode, PropertyList> propertyLists = new IdentityHashMap<FONode, PropertyList>();
+        for (Block block : blocks) {
+            block.bind(getPropertyList(block, propertyLists));
+        }
+        return propertyLists.size();
+    }
+
+    private PropertyList getPropertyList(FONode node, Map<FONode, PropertyList> propertyLists)
+            throws Exception {
+        if (!(node instanceof FObj)) {
+            return null;
+        }
+        PropertyList propertyList = propertyLists.get(node);
+        if (propertyList == null) {
+            propertyList = new StaticPropertyList((FObj) node,
+                    getPropertyList(node.getParent(), propertyLists));
+            propertyList.addAttributesToList(attributes.get(getPosition(node.getLocator())));
+            propertyLists.put(node, propertyList);
+        }
+        return propertyList;
+    }
+
+    private static String getPosition(Locator locator) {
+        return locator.getLineNumber() + ":" + locator.getColumnNumber();
+    }
+
+    /** Keeps a copy of the attributes of every element, by position in the document. */
+    private class AttributeRecorder extends XMLFilterImpl {
+
+        private Locator locator;
+
+        public void setDocumentLocator(Locator locator) {
+            this.locator = locator;
+            super.setDocumentLocator(locator);
+        }
+
+        public void startElement(String uri, String localName, String qName, Attributes atts)
+                throws SAXException {
+            attributes.put(getPosition(locator), new AttributesImpl(atts));
+            super.startElement(uri, localName, qName, atts);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.layoutmgr;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.fop.fo.Constants;
+import org.apache.fop.traits.MinOptMax;
+
+/**
+ * Measures the Knuth breaking algorithms on their own: {@link BreakingAlgorithm} breaking a
+ * justified paragraph into lines and {@link PageBreakingAlgorithm} breaking a flow of lines
+ * into pages. The element lists are built once in the setup from fixed widths, so fonts,
+ * the FO tree and the layout managers are not part of the measurement.
+ * <p>
+ * This benchmark lives in the layoutmgr package because {@link PageBreakingAlgorithm} is
+ * package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BreakingBenchmark {
+
+    /** The width of a line of an A4 page with 1in margins, in millipoints. */
+    private static final int LINE_WIDTH = 451276;
+
+    /** The height of the body of an A4 page with 1in margins, in millipoints. */
+    private static final int PAGE_HEIGHT = 698504;
+
+    private static final int CHAR_WIDTH = 5000;
+
+    private static final int SPACE_WIDTH = 2500;
+
+    private static final int LINE_HEIGHT = 14400;
+
+    /** The number of words in the paragraph and of lines in the flow. */
+    @Param({"100", "2000"})
+    private int size;
+
+    private KnuthSequence paragraph;
+
+    private KnuthSequence flow;
+
+    @Setup
+    public void setUp() {
+        paragraph = new InlineKnuthSequence();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                paragraph.add(new KnuthGlue(SPACE_WIDTH, SPACE_WIDTH / 2, SPACE_WIDTH / 3, null, false));
+            }
+            int wordLength = 2 + (i * 7) % 9;
+            paragraph.add(new KnuthBox(wordLength * CHAR_WIDTH, null, false));
+        }
+        addTerminator(paragraph);
+
+        flow = new BlockKnuthSequence();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                flow.add(new KnuthPenalty(0, 0, false, null, false));
+                flow.add(new KnuthGlue(i % 10 == 0 ? 6000 : 0, 0, 0, null, false));
+            }
+            flow.add(new KnuthBox(LINE_HEIGHT, null, false));
+        }
+        addTerminator(flow);
+    }
+
+    private static void addTerminator(KnuthSequence sequence) {
+        sequence.add(new KnuthPenalty(0, KnuthPenalty.INFINITE, false, null, false));
+        sequence.add(new KnuthGlue(0, Integer.MAX_VALUE, 0, null, false));
+        sequence.add(new KnuthPenalty(0, -KnuthPenalty.INFINITE, false, null, false));
+    }
+
+    /**
+     * Breaks the paragraph into justified lines.
+     * @return the number of lines
+     */
+    @Benchmark
+    public int breakLines() {
+        LineBreaker breaker = new LineBreaker();
+        breaker.setConstantLineWidth(LINE_WIDTH);
+        return breaker.findBreakingPoints(paragraph, 1, true, BreakingAlgorithm.ALL_BREAKS);
+    }
+
+    /**
+     * Breaks the flow into pages.
+     * @return the number of pages
+     */
+    @Benchmark
+    public int breakPages() {
+        PageBreakingAlgorithm breaker = new PageBreakingAlgorithm(null, null, null,
+                Constants.EN_START, Constants.EN_START, MinOptMax.ZERO, true, false, false, null);
+        breaker.setConstantLineWidth(PAGE_HEIGHT);
+        return breaker.findBreakingPoints(flow, 1, true, BreakingAlgorithm.ALL_BREAKS);
+    }
+
+    /** A line breaker that only counts the lines, as the layout managers are not involved. */
+    private static class LineBreaker extends BreakingAlgorithm {
+
+        LineBreaker() {
+            super(Constants.EN_JUSTIFY, Constants.EN_START, true, true, 0);
+        }
+
+        @Override
+        public void updateData1(int total, double demerits) {
+            //nop
+        }
+
+        @Override
+        public void updateData2(KnuthNode bestActiveNode, KnuthSequence sequence, int total) {
+            //nop
+        }
+
+        @Override
+        protected int filterActiveNodes() {
+            //nop
+            return 0;
+        }
+    }
+}
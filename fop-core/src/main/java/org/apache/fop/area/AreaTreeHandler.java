@@ -46,6 +46,7 @@ import org.apache.fop.layoutmgr.LayoutManagerMaker;
 import org.apache.fop.layoutmgr.LayoutManagerMapping;
 import org.apache.fop.layoutmgr.PageSequenceLayoutManager;
 import org.apache.fop.layoutmgr.TopLevelLayoutManager;
+import org.apache.fop.layoutmgr.inline.LineBreakCache;
 
 /**
  * Area tree handler for formatting objects.
@@ -89,6 +90,9 @@ public class AreaTreeHandler extends FOEventHandler {
 
     private int idGen;
 
+    // Memo of line breaking results shared by all page sequences
+    private final LineBreakCache lineBreakCache = new LineBreakCache();
+
     /**
      * Constructor.
      *
@@ -155,6 +159,14 @@ public class AreaTreeHandler extends FOEventHandler {
         return this.lmMaker;
     }
 
+    /**
+     * Returns the memo of line breaking results for this document.
+     * @return the line break cache
+     */
+    public LineBreakCache getLineBreakCache() {
+        return lineBreakCache;
+    }
+
     /**
      * Get the IDTracker for this area tree.
      *
@@ -259,6 +271,11 @@ public class AreaTreeHandler extends FOEventHandler {
             statistics.end();
         }
 
+        // Page sequences are laid out one after the other on the parsing thread. They cannot
+        // be handed to separate threads: the first page number of a sequence depends on the
+        // page count of the previous one (force-page-count, initial-page-number="auto"), and
+        // the IDTracker, the FontInfo used-glyph sets and the AreaTreeModel are shared and
+        // not thread-safe.
         // If no main flow, nothing to layout!
         if (pageSequence.getMainFlow() != null) {
             PageSequenceLayoutManager pageSLM;
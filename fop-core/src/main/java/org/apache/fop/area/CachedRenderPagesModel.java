@@ -30,10 +30,21 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.xml.sax.SAXException;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 
 import org.apache.xmlgraphics.io.TempResourceURIGenerator;
 
@@ -46,11 +57,25 @@ import org.apache.fop.fonts.FontInfo;
  * If the page is prepared for later rendering then this saves
  * the page contents to a file and once the page is resolved
  * the contents are reloaded.
+ * <p>
+ * Pages are written on a background thread so layout can continue meanwhile. If the
+ * background thread falls behind, pages are written on the calling thread.
  */
 public class CachedRenderPagesModel extends RenderPagesModel {
 
+    /** The number of page saves which may be queued for the background thread. */
+    private static final int MAX_PENDING_SAVES = 4;
+
     private Map<PageViewport, URI> pageMap = new HashMap<PageViewport, URI>();
 
+    private Map<PageViewport, Future<?>> pendingSaves = new HashMap<PageViewport, Future<?>>();
+
+    private ThreadPoolExecutor saveExecutor;
+
+    private final AtomicInteger savedPageCount = new AtomicInteger();
+
+    private final AtomicLong savedBytes = new AtomicLong();
+
     /** Base directory to save temporary file in, typically points to the user's temp dir. */
     private final URI tempBaseURI;
     private static final TempResourceURIGenerator TEMP_URI_GENERATOR
@@ -79,6 +104,7 @@ public class CachedRenderPagesModel extends RenderPagesModel {
                 if (pageViewport != newpage) {
                     try {
                         // load page from cache
+                        awaitSave(pageViewport);
                         URI tempURI = pageMap.get(pageViewport);
                         log.debug("Loading page from: " + tempURI);
                         InputStream inStream = renderer.getUserAgent().getResourceResolver().getResource(tempURI);
@@ -122,20 +148,32 @@ public class CachedRenderPagesModel extends RenderPagesModel {
     protected void savePage(PageViewport page) {
         try {
             // save page to cache
-            ObjectOutputStream tempstream;
             String fname = "/fop-page-" + page.getPageIndex() + ".ser";
-            URI tempURI = URI.create(tempBaseURI + fname);
-            OutputStream outStream = renderer.getUserAgent().getResourceResolver().getOutputStream(tempURI);
-            tempstream = new ObjectOutputStream(new BufferedOutputStream(outStream));
-            try {
-                page.savePage(tempstream);
-            } finally {
-                IOUtils.closeQuietly(tempstream);
-            }
+            final URI tempURI = URI.create(tempBaseURI + fname);
+            final OutputStream outStream
+                    = renderer.getUserAgent().getResourceResolver().getOutputStream(tempURI);
+            final Page content = page.detachPage();
+            Future<?> future = getSaveExecutor().submit(new Callable<Void>() {
+                public Void call() throws IOException {
+                    CountingOutputStream counter = new CountingOutputStream(
+                            new BufferedOutputStream(outStream));
+                    ObjectOutputStream tempstream = new ObjectOutputStream(counter);
+                    try {
+                        tempstream.writeObject(content);
+                        tempstream.flush();
+                    } finally {
+                        IOUtils.closeQuietly(tempstream);
+                    }
+                    savedPageCount.incrementAndGet();
+                    savedBytes.addAndGet(counter.getByteCount());
+                    if (log.isDebugEnabled()) {
+                        log.debug("Page saved to temporary file: " + tempURI);
+                    }
+                    return null;
+                }
+            });
             pageMap.put(page, tempURI);
-            if (log.isDebugEnabled()) {
-                log.debug("Page saved to temporary file: " + tempURI);
-            }
+            pendingSaves.put(page, future);
         } catch (IOException ioe) {
             AreaEventProducer eventProducer
                 = AreaEventProducer.Provider.get(
@@ -144,10 +182,73 @@ public class CachedRenderPagesModel extends RenderPagesModel {
         }
     }
 
+    /**
+     * Waits until the page has been written to its temporary file.
+     * @param page the page
+     * @throws IOException if the page could not be saved
+     */
+    private void awaitSave(PageViewport page) throws IOException {
+        Future<?> future = pendingSaves.remove(page);
+        if (future != null) {
+            try {
+                future.get();
+            } catch (ExecutionException ee) {
+                throw new IOException("Page could not be saved to its temporary file", ee.getCause());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while saving page", ie);
+            }
+        }
+    }
+
+    private ExecutorService getSaveExecutor() {
+        if (saveExecutor == null) {
+            saveExecutor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(MAX_PENDING_SAVES),
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "FOP page cache writer");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            saveExecutor.allowCoreThreadTimeOut(true);
+        }
+        return saveExecutor;
+    }
+
+    /**
+     * Returns the number of pages written to temporary files so far.
+     * @return the number of saved pages
+     */
+    public int getSavedPageCount() {
+        return savedPageCount.get();
+    }
+
+    /**
+     * Returns the number of bytes written to temporary files so far.
+     * @return the number of bytes
+     */
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+
     /** {@inheritDoc} */
     @Override
     public void endDocument() throws SAXException {
-        super.endDocument();
+        try {
+            super.endDocument();
+        } finally {
+            if (saveExecutor != null) {
+                saveExecutor.shutdown();
+                saveExecutor = null;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(getSavedPageCount() + " page(s) saved to temporary files, "
+                        + getSavedBytes() + " bytes written");
+            }
+        }
     }
 }
 
@@ -404,10 +404,29 @@ public class PageViewport extends AreaTreeObject implements Resolvable {
      * @throws IOException in case of an I/O error while serializing the page
      */
     public void savePage(ObjectOutputStream out) throws IOException {
-        // set the unresolved references so they are serialized
-        page.setUnresolvedReferences(unresolvedIDRefs);
-        out.writeObject(page);
+        out.writeObject(detachPage());
+    }
+
+    /**
+     * Removes the page contents from this viewport so they can be saved. The map of
+     * unresolved references is set on the page so that the resolvers are saved with it.
+     * References resolved after this call are kept pending until {@link #loadPage} is called.
+     * @return the page contents
+     */
+    Page detachPage() {
+        // set the unresolved references so they are serialized; the page gets its own copy
+        // since references may be resolved on this viewport while the page is being saved
+        Map<String, List<Resolvable>> references = null;
+        if (unresolvedIDRefs != null) {
+            references = new HashMap<String, List<Resolvable>>();
+            for (Map.Entry<String, List<Resolvable>> e : unresolvedIDRefs.entrySet()) {
+                references.put(e.getKey(), new ArrayList<Resolvable>(e.getValue()));
+            }
+        }
+        page.setUnresolvedReferences(references);
+        Page detached = page;
         page = null;
+        return detached;
     }
 
     /**
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.fo;
+
+import org.apache.fop.fo.properties.Property;
+
+/**
+ * A compact map from property IDs to {@link Property} values. Only the properties
+ * actually stored take up space, so a formatting object with a handful of properties
+ * does not pay for a slot for every property in {@link Constants#PROPERTY_COUNT}.
+ * <p>
+ * The entries are kept in an open-addressing hash table with linear probing. Since
+ * property IDs are small consecutive integers, the ID itself is a good enough hash.
+ */
+final class SparsePropertyArray {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Property ID + 1 per slot, 0 meaning the slot is free. */
+    private int[] keys;
+    private Property[] values;
+    private int size;
+
+    /**
+     * Returns the value stored for a property.
+     * @param propId the property ID
+     * @return the value or null if none has been stored
+     */
+    Property get(int propId) {
+        if (keys == null) {
+            return null;
+        }
+        int key = propId + 1;
+        int mask = keys.length - 1;
+        for (int i = key & mask;; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            } else if (k == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Stores the value for a property, replacing any previous value.
+     * @param propId the property ID
+     * @param value the value (may be null)
+     */
+    void put(int propId, Property value) {
+        if (keys == null) {
+            if (value == null) {
+                return;
+            }
+            keys = new int[INITIAL_CAPACITY];
+            values = new Property[INITIAL_CAPACITY];
+        }
+        int key = propId + 1;
+        int mask = keys.length - 1;
+        int i = key & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (value == null) {
+            return;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /** @return the number of properties stored */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Property[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Property[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = key & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -23,11 +23,13 @@ import org.apache.fop.fo.expr.PropertyException;
 import org.apache.fop.fo.properties.Property;
 
 /**
- * A very fast implementation of PropertyList that uses arrays to store
- * the explicit set properties and another array to store cached values.
+ * A very fast implementation of PropertyList that uses a sparse array to store
+ * the explicit set properties and an array to store cached values. Only a few
+ * properties are set explicitly on an FO, but binding it resolves most of the
+ * properties it supports, so the cache is kept dense.
  */
 public class StaticPropertyList extends PropertyList {
-    private final Property[] explicit;
+    private final SparsePropertyArray explicit;
     private final Property[] values;
 
     /**
@@ -37,7 +39,7 @@ public class StaticPropertyList extends PropertyList {
      */
     public StaticPropertyList(FObj fObjToAttach, PropertyList parentPropertyList) {
         super(fObjToAttach, parentPropertyList);
-        explicit = new Property[Constants.PROPERTY_COUNT + 1];
+        explicit = new SparsePropertyArray();
         values = new Property[Constants.PROPERTY_COUNT + 1];
     }
 
@@ -47,7 +49,7 @@ public class StaticPropertyList extends PropertyList {
      * @return The value if the property is explicitly set, otherwise null.
      */
     public Property getExplicit(int propId) {
-        return explicit[propId];
+        return explicit.get(propId);
     }
 
     /**
@@ -56,7 +58,7 @@ public class StaticPropertyList extends PropertyList {
      * @param value The value of the property to set.
      */
     public void putExplicit(int propId, Property value) {
-        explicit[propId] = value;
+        explicit.put(propId, value);
         if (values[propId] != null) { // if the cached value is set overwrite it
             values[propId] = value;
         }
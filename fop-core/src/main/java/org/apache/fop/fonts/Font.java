@@ -75,6 +75,9 @@ public class Font implements Substitutable, Positionable {
     private final FontTriplet triplet;
     private final int fontSize;
 
+    /** packed copy of the kerning map, built on first use */
+    private KerningTable kerningTable;
+
     /**
      * normal or small-caps font
      */
@@ -204,14 +207,18 @@ public class Font implements Substitutable, Positionable {
             return 0;
         }
 
-        Map<Integer, Integer> kernPair = getKerning().get(ch1);
-        if (kernPair != null) {
-            Integer width = kernPair.get(ch2);
-            if (width != null) {
-                return width * getFontSize() / 1000;
-            }
+        int width = getKerningTable().getKernValue(ch1, ch2);
+        return width == 0 ? 0 : width * getFontSize() / 1000;
+    }
+
+    private KerningTable getKerningTable() {
+        // Font instances are shared, a racy initialization only builds the same immutable table twice
+        KerningTable table = kerningTable;
+        if (table == null) {
+            table = KerningTable.build(getKerning());
+            kerningTable = table;
         }
-        return 0;
+        return table;
     }
 
     /**
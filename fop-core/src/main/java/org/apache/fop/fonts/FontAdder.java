@@ -19,9 +19,21 @@
 
 package org.apache.fop.fonts;
 
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.apache.fop.apps.io.InternalResourceResolver;
 import org.apache.fop.fonts.autodetect.FontInfoFinder;
@@ -30,9 +42,17 @@ import org.apache.fop.fonts.autodetect.FontInfoFinder;
  * Adds a list of fonts to a given font info list
  */
 public class FontAdder {
+
+    /** Upper bound for the number of threads used to parse font files */
+    private static final int MAX_THREADS = 8;
+
+    private static final Log LOG = LogFactory.getLog(FontAdder.class);
+
     private final FontEventListener listener;
     private final InternalResourceResolver resourceResolver;
     private final FontManager manager;
+    private int threadCount = Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+    private ThreadPoolExecutor executor;
 
     /**
      * Main constructor
@@ -47,28 +67,162 @@ public class FontAdder {
         this.listener = listener;
     }
 
+    /**
+     * Sets the number of threads used to parse font files. A value of 1 parses all font
+     * files on the calling thread.
+     * @param threadCount the number of threads (at least 1)
+     */
+    public synchronized void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1: " + threadCount);
+        }
+        this.threadCount = threadCount;
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
     /**
      * Iterates over font url list adding to font info list
      * @param fontURLList font file list
-     * @param fontInfoList a configured font info list
+     * @param fontInfoList a configured font info list. If the calling thread is interrupted
+     * while the fonts are parsed, the list is left incomplete and the thread's interrupt
+     * status is set.
      * @throws URISyntaxException if a URI syntax error is found
      */
     public void add(List<URL> fontURLList, List<EmbedFontInfo> fontInfoList)
             throws URISyntaxException {
         FontCache cache = manager.getFontCache();
-        FontInfoFinder finder = new FontInfoFinder();
-        finder.setEventListener(listener);
+        if (threadCount == 1 || fontURLList.size() < 2) {
+            FontInfoFinder finder = new FontInfoFinder();
+            finder.setEventListener(listener);
+            for (URL fontURL : fontURLList) {
+                addFontInfos(finder.find(fontURL.toURI(), resourceResolver, cache), fontInfoList);
+            }
+        } else {
+            addInParallel(fontURLList, fontInfoList, cache);
+        }
+    }
 
-        for (URL fontURL : fontURLList) {
-            EmbedFontInfo[] embedFontInfos = finder.find(fontURL.toURI(), resourceResolver, cache);
-            if (embedFontInfos == null) {
-                continue;
+    /**
+     * Returns the pool shared by all calls to {@link #add(List, List)}. Its threads are daemons
+     * and exit after a few idle seconds, so the pool needs no explicit shutdown.
+     */
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(threadCount, threadCount, 5, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "FOP font auto-detection");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Parses the font files on a bounded pool. The results are added in the order of the
+     * font file list so the outcome doesn't depend on thread scheduling. Fonts found in the
+     * cache are read on the calling thread and the pool is only started for the others, so a
+     * warm start doesn't pay for the threads.
+     */
+    private void addInParallel(List<URL> fontURLList, List<EmbedFontInfo> fontInfoList,
+            final FontCache cache) throws URISyntaxException {
+        final FontEventListener syncListener
+                = listener != null ? new SynchronizedFontEventListener(listener) : null;
+        FontInfoFinder cachedFinder = new FontInfoFinder();
+        cachedFinder.setEventListener(syncListener);
+        List<EmbedFontInfo[]> cached = new ArrayList<EmbedFontInfo[]>(fontURLList.size());
+        List<Future<EmbedFontInfo[]>> results
+                = new ArrayList<Future<EmbedFontInfo[]>>(fontURLList.size());
+        try {
+            for (URL fontURL : fontURLList) {
+                final URI fontURI = fontURL.toURI();
+                if (isCached(fontURI, cache)) {
+                    cached.add(cachedFinder.find(fontURI, resourceResolver, cache));
+                    results.add(null);
+                    continue;
+                }
+                cached.add(null);
+                results.add(getExecutor().submit(new Callable<EmbedFontInfo[]>() {
+                    public EmbedFontInfo[] call() {
+                        FontInfoFinder finder = new FontInfoFinder();
+                        finder.setEventListener(syncListener);
+                        return finder.find(fontURI, resourceResolver, cache);
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Future<EmbedFontInfo[]> result = results.get(i);
+                addFontInfos(result != null ? result.get() : cached.get(i), fontInfoList);
             }
-            for (EmbedFontInfo fontInfo : embedFontInfos) {
-                if (fontInfo != null) {
-                    fontInfoList.add(fontInfo);
+        } catch (InterruptedException e) {
+            LOG.warn("Font detection was interrupted; the list of available fonts is incomplete");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (Future<EmbedFontInfo[]> result : results) {
+                if (result != null) {
+                    result.cancel(true);
                 }
             }
         }
     }
+
+    private boolean isCached(URI fontURI, FontCache cache) {
+        return cache != null
+                && cache.containsFont(resourceResolver.resolveFromBase(fontURI).toASCIIString());
+    }
+
+    private static void addFontInfos(EmbedFontInfo[] embedFontInfos,
+            List<EmbedFontInfo> fontInfoList) {
+        if (embedFontInfos == null) {
+            return;
+        }
+        for (EmbedFontInfo fontInfo : embedFontInfos) {
+            if (fontInfo != null) {
+                fontInfoList.add(fontInfo);
+            }
+        }
+    }
+
+    /** Serializes event notifications coming from the parser threads. */
+    private static final class SynchronizedFontEventListener implements FontEventListener {
+
+        private final FontEventListener delegate;
+
+        SynchronizedFontEventListener(FontEventListener delegate) {
+            this.delegate = delegate;
+        }
+
+        public synchronized void fontSubstituted(Object source, FontTriplet requested,
+                FontTriplet effective) {
+            delegate.fontSubstituted(source, requested, effective);
+        }
+
+        public synchronized void fontLoadingErrorAtAutoDetection(Object source, String fontURL,
+                Exception e) {
+            delegate.fontLoadingErrorAtAutoDetection(source, fontURL, e);
+        }
+
+        public synchronized void glyphNotAvailable(Object source, char ch, String fontName) {
+            delegate.glyphNotAvailable(source, ch, fontName);
+        }
+
+        public synchronized void fontDirectoryNotFound(Object source, String dir) {
+            delegate.fontDirectoryNotFound(source, dir);
+        }
+
+        public synchronized void svgTextStrokedAsShapes(Object source, String fontFamily) {
+            delegate.svgTextStrokedAsShapes(source, fontFamily);
+        }
+    }
 }
@@ -52,6 +52,9 @@ public class FontManager {
     /** FontTriplet matcher for fonts that shall be referenced rather than embedded. */
     private FontTriplet.Matcher referencedFontsMatcher;
 
+    /** Cache of font subsets shared between documents, null if disabled (the default) */
+    private FontSubsetCache fontSubsetCache;
+
     /**
      * Main constructor
      *
@@ -110,6 +113,23 @@ public class FontManager {
         return fontSubstitutions;
     }
 
+    /**
+     * Sets the cache used to share font subsets between the documents rendered with this
+     * font manager. Pass null to disable subset caching (the default).
+     * @param fontSubsetCache the font subset cache or null
+     */
+    public void setFontSubsetCache(FontSubsetCache fontSubsetCache) {
+        this.fontSubsetCache = fontSubsetCache;
+    }
+
+    /**
+     * Returns the cache used to share font subsets between documents.
+     * @return the font subset cache or null if subset caching is disabled
+     */
+    public FontSubsetCache getFontSubsetCache() {
+        return fontSubsetCache;
+    }
+
     /**
      * Sets the font cache file
      * @param cacheFileURI the URI of the font cache file
@@ -116,6 +116,22 @@ public class FontManagerConfigurator {
             }
         }
 
+        // sharing font subsets between documents, off by default
+        Configuration subsetCacheCfg = cfg.getChild("font-subset-cache", false);
+        if (subsetCacheCfg != null) {
+            try {
+                if (subsetCacheCfg.getValueAsBoolean()) {
+                    long maxBytes = Long.parseLong(subsetCacheCfg.getAttribute("max-bytes",
+                            String.valueOf(FontSubsetCache.DEFAULT_MAX_BYTES)));
+                    fontManager.setFontSubsetCache(new FontSubsetCache(maxBytes));
+                }
+            } catch (ConfigurationException e) {
+                LogUtil.handleException(log, e, strict);
+            } catch (IllegalArgumentException e) {
+                LogUtil.handleException(log, e, strict);
+            }
+        }
+
         // global font configuration
         Configuration fontsCfg = cfg.getChild("fonts", false);
         if (fontsCfg != null) {
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.fonts;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bounded, thread-safe cache of TrueType font subsets that can be shared between the
+ * documents produced by one {@link org.apache.fop.apps.FopFactory}. In batch runs where
+ * many documents use the same font with the same set of glyphs (invoices, letters, labels),
+ * this avoids parsing the font file and rebuilding the subset for every document.
+ * <p>
+ * A subset is only reused when the font, the collection member and the complete glyph
+ * mapping (original glyph index to subset glyph index) are identical. A subset built for a
+ * superset of glyphs cannot be substituted, because the subset glyph indices end up as
+ * CIDs in the content streams and are assigned per document in order of first use.
+ * <p>
+ * The cache holds at most {@link #getMaxBytes()} bytes of subset data; least recently used
+ * entries are evicted first. The byte arrays handed out by {@link #get} are shared and must
+ * not be modified by callers.
+ * <p>
+ * Only TrueType subsets embedded in PDF are cached; CFF and Type 1 subsets are built for
+ * every document. The cache is off by default and is enabled in the configuration file with
+ * <code>&lt;font-subset-cache max-bytes="16777216"&gt;true&lt;/font-subset-cache&gt;</code>
+ * (<code>max-bytes</code> is optional and defaults to {@link #DEFAULT_MAX_BYTES}), or
+ * through {@link FontManager#setFontSubsetCache(FontSubsetCache)}.
+ */
+public class FontSubsetCache {
+
+    /** Default memory budget for cached subsets: 16MB */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private final long maxBytes;
+
+    private final Map<Key, byte[]> subsets = new LinkedHashMap<Key, byte[]>(16, 0.75f, true);
+
+    private long currentBytes;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Creates a cache with the default memory budget.
+     */
+    public FontSubsetCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache with the given memory budget.
+     * @param maxBytes the maximum number of bytes of subset data to keep
+     */
+    public FontSubsetCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up a previously built subset.
+     * @param fontURI the URI of the font file
+     * @param subFontName the name of the font in a TrueType collection (may be null)
+     * @param usedGlyphs the glyph mapping (original index to subset index) of the subset
+     * @return the subset bytes or null if no matching subset is cached
+     */
+    public byte[] get(URI fontURI, String subFontName, Map<Integer, Integer> usedGlyphs) {
+        Key key = new Key(fontURI, subFontName, usedGlyphs);
+        synchronized (subsets) {
+            byte[] subset = subsets.get(key);
+            if (subset != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return subset;
+        }
+    }
+
+    /**
+     * Stores a subset. Subsets larger than the memory budget are not cached.
+     * @param fontURI the URI of the font file
+     * @param subFontName the name of the font in a TrueType collection (may be null)
+     * @param usedGlyphs the glyph mapping (original index to subset index) of the subset
+     * @param subset the subset bytes; the array must not be modified afterwards
+     */
+    public void put(URI fontURI, String subFontName, Map<Integer, Integer> usedGlyphs,
+            byte[] subset) {
+        if (subset.length > maxBytes) {
+            return;
+        }
+        Key key = new Key(fontURI, subFontName, usedGlyphs);
+        synchronized (subsets) {
+            byte[] previous = subsets.put(key, subset);
+            if (previous != null) {
+                currentBytes -= previous.length;
+            }
+            currentBytes += subset.length;
+            Iterator<byte[]> iter = subsets.values().iterator();
+            while (currentBytes > maxBytes && iter.hasNext()) {
+                currentBytes -= iter.next().length;
+                iter.remove();
+            }
+        }
+    }
+
+    /** Removes all cached subsets. */
+    public void clear() {
+        synchronized (subsets) {
+            subsets.clear();
+            currentBytes = 0;
+        }
+    }
+
+    /** @return the memory budget in bytes */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** @return the number of bytes of subset data currently cached */
+    public long getSize() {
+        synchronized (subsets) {
+            return currentBytes;
+        }
+    }
+
+    /** @return the number of subsets currently cached */
+    public int getEntryCount() {
+        synchronized (subsets) {
+            return subsets.size();
+        }
+    }
+
+    /** @return the number of lookups that found a cached subset */
+    public long getHitCount() {
+        synchronized (subsets) {
+            return hits;
+        }
+    }
+
+    /** @return the number of lookups that did not find a cached subset */
+    public long getMissCount() {
+        synchronized (subsets) {
+            return misses;
+        }
+    }
+
+    private static final class Key {
+
+        private final URI fontURI;
+
+        private final String subFontName;
+
+        /** Pairs of (original index, subset index), ordered by original index */
+        private final int[] glyphs;
+
+        private final int hash;
+
+        Key(URI fontURI, String subFontName, Map<Integer, Integer> usedGlyphs) {
+            this.fontURI = fontURI;
+            this.subFontName = subFontName;
+            this.glyphs = new int[usedGlyphs.size() * 2];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> e : new TreeMap<Integer, Integer>(usedGlyphs).entrySet()) {
+                glyphs[i++] = e.getKey();
+                glyphs[i++] = e.getValue();
+            }
+            int h = fontURI.hashCode();
+            h = 31 * h + (subFontName != null ? subFontName.hashCode() : 0);
+            this.hash = 31 * h + Arrays.hashCode(glyphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && fontURI.equals(other.fontURI)
+                    && (subFontName == null ? other.subFontName == null
+                            : subFontName.equals(other.subFontName))
+                    && Arrays.equals(glyphs, other.glyphs);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.fonts;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, packed form of a font's kerning map. The character pairs are stored as
+ * sorted <code>long</code> keys with a parallel array of kerning values so that a lookup
+ * is a binary search without boxing or hashing.
+ */
+final class KerningTable {
+
+    /** An empty table. */
+    static final KerningTable EMPTY = new KerningTable(new long[0], new int[0]);
+
+    private final long[] pairs;
+    private final int[] values;
+
+    private KerningTable(long[] pairs, int[] values) {
+        this.pairs = pairs;
+        this.values = values;
+    }
+
+    /**
+     * Builds a kerning table from a kerning map as returned by
+     * {@link FontMetrics#getKerningInfo()}.
+     * @param kerning the kerning map (may be null)
+     * @return the kerning table
+     */
+    static KerningTable build(Map<Integer, Map<Integer, Integer>> kerning) {
+        if (kerning == null || kerning.isEmpty()) {
+            return EMPTY;
+        }
+        int size = 0;
+        for (Map<Integer, Integer> second : kerning.values()) {
+            if (second != null) {
+                size += second.size();
+            }
+        }
+        long[] entries = new long[size];
+        int[] kerns = new int[size];
+        int i = 0;
+        // iterating in key order leaves the packed keys sorted (character codes are never negative)
+        for (Map.Entry<Integer, Map<Integer, Integer>> first : new TreeMap<Integer, Map<Integer, Integer>>(
+                kerning).entrySet()) {
+            if (first.getValue() == null) {
+                continue;
+            }
+            for (Map.Entry<Integer, Integer> second : new TreeMap<Integer, Integer>(
+                    first.getValue()).entrySet()) {
+                // a null value means the pair is not kerned, as in Font.getKernValue() before
+                if (second.getValue() == null) {
+                    continue;
+                }
+                entries[i] = key(first.getKey(), second.getKey());
+                kerns[i] = second.getValue();
+                i++;
+            }
+        }
+        if (i < size) {
+            entries = Arrays.copyOf(entries, i);
+            kerns = Arrays.copyOf(kerns, i);
+        }
+        return new KerningTable(entries, kerns);
+    }
+
+    private static long key(int ch1, int ch2) {
+        return ((long) ch1 << 32) | (ch2 & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the kerning value for a character pair.
+     * @param ch1 the first character
+     * @param ch2 the second character
+     * @return the kerning value (in 1/1000 em), 0 if the pair is not kerned
+     */
+    int getKernValue(int ch1, int ch2) {
+        int index = Arrays.binarySearch(pairs, key(ch1, ch2));
+        return index >= 0 ? values[index] : 0;
+    }
+
+    /** @return the number of kerned pairs in this table */
+    int size() {
+        return pairs.length;
+    }
+}
@@ -315,6 +315,24 @@ public class FontFileReader {
         System.arraycopy(file, offset, ret, 0, length);
         return ret;
     }
+
+    /**
+     * Copies a range of the font file into the given array without allocating
+     * an intermediate copy as {@link #getBytes(int, int)} does.
+     *
+     * @param offset The absolute offset to start reading from
+     * @param dest the array to copy into
+     * @param destOffset the position in <code>dest</code> to copy to
+     * @param length The number of bytes to copy
+     * @throws IOException if out of bounds
+     */
+    public void copyBytes(int offset, byte[] dest, int destOffset, int length) throws IOException {
+        if ((offset + length) > fsize) {
+            throw new java.io.IOException("Reached EOF");
+        }
+        System.arraycopy(file, offset, dest, destOffset, length);
+    }
+
     /**
      * Returns the full byte array representation of the file.
      * @return byte array.
@@ -84,9 +84,8 @@ public class OTFSubSetWriter extends OTFFile {
 
 
     protected void writeBytes(byte[] out) {
-        for (byte anOut : out) {
-            writeByte(anOut);
-        }
+        output.write(out, 0, out.length);
+        currentPos += out.length;
     }
 
     /**
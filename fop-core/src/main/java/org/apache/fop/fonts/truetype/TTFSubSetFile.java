@@ -182,7 +182,7 @@ public class TTFSubSetFile extends TTFFile {
         if (entry != null) {
             pad4();
             seekTab(in, tableName, 0);
-            writeBytes(in.getBytes((int) entry.getOffset(), (int) entry.getLength()));
+            copyBytes(in, (int) entry.getOffset(), (int) entry.getLength());
 
             updateCheckSum(currentPos, (int) entry.getLength(), tableName);
             currentPos += (int) entry.getLength();
@@ -231,7 +231,7 @@ public class TTFSubSetFile extends TTFFile {
         if (entry != null) {
             pad4();
             seekTab(in, maxp, 0);
-            writeBytes(in.getBytes((int) entry.getOffset(), (int) entry.getLength()));
+            copyBytes(in, (int) entry.getOffset(), (int) entry.getLength());
             writeUShort(currentPos + 4, size);
 
             updateCheckSum(currentPos, (int)entry.getLength(), maxp);
@@ -282,7 +282,7 @@ public class TTFSubSetFile extends TTFFile {
         if (entry != null) {
             pad4();
             seekTab(in, OFTableName.HHEA, 0);
-            writeBytes(in.getBytes((int) entry.getOffset(), (int) entry.getLength()));
+            copyBytes(in, (int) entry.getOffset(), (int) entry.getLength());
             writeUShort((int) entry.getLength() + currentPos - 2, size);
 
             updateCheckSum(currentPos, (int) entry.getLength(), OFTableName.HHEA);
@@ -306,7 +306,7 @@ public class TTFSubSetFile extends TTFFile {
         if (entry != null) {
             pad4();
             seekTab(in, head, 0);
-            writeBytes(in.getBytes((int) entry.getOffset(), (int) entry.getLength()));
+            copyBytes(in, (int) entry.getOffset(), (int) entry.getLength());
 
             checkSumAdjustmentOffset = currentPos + 8;
             output[currentPos + 8] = 0;     // Set checkSumAdjustment to 0
@@ -358,12 +358,9 @@ public class TTFSubSetFile extends TTFFile {
                 int glyphOffset = (int)mtxTab[origGlyphIndex].getOffset();
                 int glyphLength = nextOffset - glyphOffset;
 
-                byte[] glyphData = in.getBytes(
-                        (int)entry.getOffset() + glyphOffset,
-                        glyphLength);
                 int endOffset1 = endOffset;
                 // Copy glyph
-                writeBytes(glyphData);
+                copyBytes(in, (int) entry.getOffset() + glyphOffset, glyphLength);
 
 
                 // Update loca table
@@ -600,12 +597,25 @@ public class TTFSubSetFile extends TTFFile {
     }
 
     protected void writeBytes(byte[] b) {
-        if (b.length + currentPos > output.length) {
-            byte[] newoutput = new byte[output.length * 2];
+        ensureCapacity(b.length);
+        System.arraycopy(b, 0, output, currentPos, b.length);
+    }
+
+    /**
+     * Copies a range of the original font straight into the output array,
+     * does not update currentPos nor realSize
+     */
+    private void copyBytes(FontFileReader in, int offset, int length) throws IOException {
+        ensureCapacity(length);
+        in.copyBytes(offset, output, currentPos, length);
+    }
+
+    private void ensureCapacity(int length) {
+        if (length + currentPos > output.length) {
+            byte[] newoutput = new byte[Math.max(output.length * 2, length + currentPos)];
             System.arraycopy(output, 0, newoutput, 0, output.length);
             output = newoutput;
         }
-        System.arraycopy(b, 0, output, currentPos, b.length);
     }
 
     /**
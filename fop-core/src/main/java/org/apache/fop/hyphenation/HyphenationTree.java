@@ -32,6 +32,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.xml.sax.InputSource;
 
@@ -48,6 +50,12 @@ public class HyphenationTree extends TernaryTree implements PatternConsumer {
 
     private static final long serialVersionUID = -7842107987915665573L;
 
+    /** Maximum number of entries in the hyphenated word cache before it is emptied. */
+    private static final int MAX_CACHED_WORDS = 4096;
+
+    /** Marks a word that was looked up but has no hyphenation points. */
+    private static final Object NO_HYPHENATION = new Object();
+
     /**
      * value space: stores the interletter values
      */
@@ -68,16 +76,21 @@ public class HyphenationTree extends TernaryTree implements PatternConsumer {
      */
     private transient TernaryTree ivalues;
 
+    /** Caches the results of {@link #hyphenate(String, int, int)} for repeated words. */
+    private transient ConcurrentMap<String, Object> hyphenatedWords;
+
     /** Default constructor. */
     public HyphenationTree() {
         stoplist = new HashMap(23);    // usually a small table
         classmap = new TernaryTree();
         vspace = new ByteVector();
         vspace.alloc(1);    // this reserves index 0, which we don't use
+        hyphenatedWords = new ConcurrentHashMap<String, Object>();
     }
 
     private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
         ois.defaultReadObject();
+        hyphenatedWords = new ConcurrentHashMap<String, Object>();
     }
 
     /**
@@ -326,6 +339,21 @@ public class HyphenationTree extends TernaryTree implements PatternConsumer {
      */
     public Hyphenation hyphenate(String word, int remainCharCount,
                                  int pushCharCount) {
+        String cacheKey = word + '\u0000' + remainCharCount + ':' + pushCharCount;
+        Object cached = hyphenatedWords.get(cacheKey);
+        if (cached == null) {
+            Hyphenation hyph = hyphenateWord(word, remainCharCount, pushCharCount);
+            if (hyphenatedWords.size() >= MAX_CACHED_WORDS) {
+                //Simple eviction: start over rather than track the usage of each word
+                hyphenatedWords.clear();
+            }
+            hyphenatedWords.put(cacheKey, hyph != null ? hyph : NO_HYPHENATION);
+            return hyph;
+        }
+        return cached != NO_HYPHENATION ? (Hyphenation) cached : null;
+    }
+
+    private Hyphenation hyphenateWord(String word, int remainCharCount, int pushCharCount) {
         char[] w = word.toCharArray();
         if (isMultiPartWord(w, w.length)) {
             List<char[]> words = splitOnNonCharacters(w);
@@ -571,6 +599,7 @@ public class HyphenationTree extends TernaryTree implements PatternConsumer {
      * @param chargroup a character class (group)
      */
     public void addClass(String chargroup) {
+        hyphenatedWords.clear();
         if (chargroup.length() > 0) {
             char equivChar = chargroup.charAt(0);
             char[] key = new char[2];
@@ -591,6 +620,7 @@ public class HyphenationTree extends TernaryTree implements PatternConsumer {
      * {@link Hyphen hyphen} objects.
      */
     public void addException(String word, ArrayList hyphenatedword) {
+        hyphenatedWords.clear();
         stoplist.put(word, hyphenatedword);
     }
 
@@ -605,6 +635,7 @@ public class HyphenationTree extends TernaryTree implements PatternConsumer {
      * (i.e. '0' to '9').
      */
     public void addPattern(String pattern, String ivalue) {
+        hyphenatedWords.clear();
         int k = ivalues.find(ivalue);
         if (k <= 0) {
             k = packValues(ivalue);
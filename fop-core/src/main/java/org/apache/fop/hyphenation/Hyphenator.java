@@ -24,7 +24,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.xml.sax.InputSource;
 
@@ -54,6 +57,13 @@ public final class Hyphenator {
     public static final String HYPTYPE = Hyphenator.class.toString() + "HYP";
     public static final String XMLTYPE = Hyphenator.class.toString() + "XML";
 
+    /**
+     * Precompiled hyphenation trees from the class path, keyed by resource URL. These are
+     * shared by all FopFactory instances in the JVM since they are not modified after loading.
+     */
+    private static final ConcurrentMap<String, HyphenationTree> FOP_HYPHENATION_TREES
+            = new ConcurrentHashMap<String, HyphenationTree>();
+
     private Hyphenator() {
     }
 
@@ -107,8 +117,8 @@ public final class Hyphenator {
         return hTree;
     }
 
-    private static InputStream getResourceStream(String key) {
-        InputStream is = null;
+    private static URL getResourceURL(String key) {
+        URL url = null;
         // Try to use Context Class Loader to load the properties file.
         try {
             java.lang.reflect.Method getCCL = Thread.class.getMethod(
@@ -117,8 +127,9 @@ public final class Hyphenator {
                 ClassLoader contextClassLoader = (ClassLoader)getCCL.invoke(
                         Thread.currentThread(),
                         new Object[0]);
-                is = contextClassLoader.getResourceAsStream("hyph/" + key
-                                                            + ".hyp");
+                if (contextClassLoader != null) {
+                    url = contextClassLoader.getResource("hyph/" + key + ".hyp");
+                }
             }
         } catch (NoSuchMethodException e) {
             //ignore, fallback further down
@@ -128,12 +139,11 @@ public final class Hyphenator {
             //ignore, fallback further down
         }
 
-        if (is == null) {
-            is = Hyphenator.class.getResourceAsStream("/hyph/" + key
-                                                      + ".hyp");
+        if (url == null) {
+            url = Hyphenator.class.getResource("/hyph/" + key + ".hyp");
         }
 
-        return is;
+        return url;
     }
 
     private static HyphenationTree readHyphenationTree(InputStream in) {
@@ -150,21 +160,40 @@ public final class Hyphenator {
     }
 
     /**
-     * Returns a hyphenation tree. This method looks in the resources (getResourceStream) for
-     * the hyphenation patterns.
+     * Returns a hyphenation tree. This method looks in the resources (getResourceURL) for
+     * the hyphenation patterns. Trees loaded from the resources are shared JVM-wide.
      * @param key the language/country key
      * @return the hyphenation tree or null if it wasn't found in the resources
      */
     public static HyphenationTree getFopHyphenationTree(String key) {
-        InputStream is = getResourceStream(key);
-        if (is == null) {
+        URL url = getResourceURL(key);
+        if (url == null) {
             if (log.isDebugEnabled()) {
                 log.debug("Couldn't find precompiled hyphenation pattern "
                           + key + " in resources");
             }
             return null;
         }
-        return readHyphenationTree(is);
+        String urlKey = url.toExternalForm();
+        HyphenationTree hTree = FOP_HYPHENATION_TREES.get(urlKey);
+        if (hTree == null) {
+            InputStream is = null;
+            try {
+                is = new BufferedInputStream(url.openStream());
+                hTree = readHyphenationTree(is);
+            } catch (IOException ioe) {
+                log.error("I/O error while loading precompiled hyphenation pattern file", ioe);
+            } finally {
+                IOUtils.closeQuietly(is);
+            }
+            if (hTree != null) {
+                HyphenationTree existing = FOP_HYPHENATION_TREES.putIfAbsent(urlKey, hTree);
+                if (existing != null) {
+                    hTree = existing;
+                }
+            }
+        }
+        return hTree;
     }
 
     /**
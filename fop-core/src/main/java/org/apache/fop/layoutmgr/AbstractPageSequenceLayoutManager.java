@@ -34,6 +34,7 @@ import org.apache.fop.fo.Constants;
 import org.apache.fop.fo.flow.Marker;
 import org.apache.fop.fo.flow.RetrieveMarker;
 import org.apache.fop.fo.pagination.AbstractPageSequence;
+import org.apache.fop.layoutmgr.inline.LineBreakCache;
 
 /**
  * Abstract base class for a page sequence layout manager.
@@ -83,6 +84,14 @@ public abstract class AbstractPageSequenceLayoutManager extends AbstractLayoutMa
         return areaTreeHandler.getLayoutManagerMaker();
     }
 
+    /**
+     * Returns the document wide memo of line breaking results.
+     * @return the line break cache or null if none is available
+     */
+    public LineBreakCache getLineBreakCache() {
+        return areaTreeHandler != null ? areaTreeHandler.getLineBreakCache() : null;
+    }
+
     /**
      * Provides access to the current page.
      * @return the current Page
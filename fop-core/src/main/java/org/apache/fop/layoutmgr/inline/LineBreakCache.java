@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.layoutmgr.inline;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.fop.layoutmgr.KnuthElement;
+import org.apache.fop.layoutmgr.KnuthPenalty;
+
+/**
+ * Per-document memo of line breaking results. Paragraphs with the same sequence of Knuth
+ * elements (as far as the breaking algorithm can see: element type, width, stretch,
+ * shrink, penalty value and flags) and the same breaking parameters always produce the
+ * same breaks, so the result computed for one of them can be replayed for the others.
+ * This helps with repeated content such as identical table cells and static content, and
+ * with paragraphs that are broken again after a layout restart.
+ * <p>
+ * A result is recorded as the sequence of operations the breaking algorithm performed on
+ * its {@link LineLayoutPossibilities}. Replaying the operations creates new break positions
+ * for the paragraph at hand, so line heights and paragraph indices are computed for the
+ * actual content.
+ */
+public final class LineBreakCache {
+
+    /** Maximum number of paragraphs to remember */
+    private static final int MAX_ENTRIES = 512;
+
+    /** Paragraphs with more elements than this are not cached */
+    private static final int MAX_ELEMENTS = 4096;
+
+    private final Map<Key, Result> results = new LinkedHashMap<Key, Result>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private int hits;
+
+    private int misses;
+
+    /**
+     * Creates the key for a paragraph.
+     * @param elements the Knuth elements of the paragraph
+     * @param parameters the breaking parameters
+     * @return the key or null if the paragraph cannot be cached
+     */
+    static Key createKey(List elements, int[] parameters) {
+        int size = elements.size();
+        if (size > MAX_ELEMENTS) {
+            return null;
+        }
+        int[] data = new int[parameters.length + size * 5];
+        System.arraycopy(parameters, 0, data, 0, parameters.length);
+        int i = parameters.length;
+        for (Object o : elements) {
+            if (!(o instanceof KnuthElement)) {
+                return null;
+            }
+            KnuthElement el = (KnuthElement) o;
+            int flags = el.isAuxiliary() ? 1 : 0;
+            data[i + 1] = el.getWidth();
+            if (el.isBox()) {
+                flags |= 2;
+            } else if (el.isGlue()) {
+                flags |= 4;
+                data[i + 2] = el.getStretch();
+                data[i + 3] = el.getShrink();
+            } else {
+                flags |= ((KnuthPenalty) el).isPenaltyFlagged() ? 16 : 8;
+                data[i + 4] = el.getPenalty();
+            }
+            data[i] = flags;
+            i += 5;
+        }
+        return new Key(data);
+    }
+
+    Result get(Key key) {
+        Result result = results.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    void put(Key key, Result result) {
+        results.put(key, result);
+    }
+
+    /** @return the number of paragraphs whose breaks were taken from the cache */
+    public int getHitCount() {
+        return hits;
+    }
+
+    /** @return the number of paragraphs that had to be broken */
+    public int getMissCount() {
+        return misses;
+    }
+
+    static final class Key {
+
+        private final int[] data;
+
+        private final int hash;
+
+        private Key(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && hash == ((Key) obj).hash
+                    && Arrays.equals(data, ((Key) obj).data);
+        }
+    }
+
+    /** Receives the operations of a recorded result. */
+    interface Replayer {
+
+        void addPossibility(int lineCount, double demerits);
+
+        void addBreakPosition(int possibility, int firstElementIndex, int lastElementIndex,
+                int availableShrink, int availableStretch, int difference, double ratio,
+                int startIndent, int endIndent);
+
+        void savePossibilities();
+
+        void restorePossibilities();
+    }
+
+    /** The recorded operations for one paragraph. */
+    static final class Result implements Replayer {
+
+        private static final int ADD_POSSIBILITY = 0;
+        private static final int ADD_BREAK_POSITION = 1;
+        private static final int SAVE_POSSIBILITIES = 2;
+        private static final int RESTORE_POSSIBILITIES = 3;
+
+        private int[] ints = new int[32];
+        private int intCount;
+        private double[] doubles = new double[8];
+        private int doubleCount;
+
+        private void add(int value) {
+            if (intCount == ints.length) {
+                ints = Arrays.copyOf(ints, intCount * 2);
+            }
+            ints[intCount++] = value;
+        }
+
+        private void add(double value) {
+            if (doubleCount == doubles.length) {
+                doubles = Arrays.copyOf(doubles, doubleCount * 2);
+            }
+            doubles[doubleCount++] = value;
+        }
+
+        public void addPossibility(int lineCount, double demerits) {
+            add(ADD_POSSIBILITY);
+            add(lineCount);
+            add(demerits);
+        }
+
+        public void addBreakPosition(int possibility, int firstElementIndex,
+                int lastElementIndex, int availableShrink, int availableStretch, int difference,
+                double ratio, int startIndent, int endIndent) {
+            add(ADD_BREAK_POSITION);
+            add(possibility);
+            add(firstElementIndex);
+            add(lastElementIndex);
+            add(availableShrink);
+            add(availableStretch);
+            add(difference);
+            add(startIndent);
+            add(endIndent);
+            add(ratio);
+        }
+
+        public void savePossibilities() {
+            add(SAVE_POSSIBILITIES);
+        }
+
+        public void restorePossibilities() {
+            add(RESTORE_POSSIBILITIES);
+        }
+
+        void replay(Replayer replayer) {
+            int d = 0;
+            for (int i = 0; i < intCount;) {
+                switch (ints[i++]) {
+                case ADD_POSSIBILITY:
+                    replayer.addPossibility(ints[i++], doubles[d++]);
+                    break;
+                case ADD_BREAK_POSITION:
+                    replayer.addBreakPosition(ints[i], ints[i + 1], ints[i + 2], ints[i + 3],
+                            ints[i + 4], ints[i + 5], doubles[d++], ints[i + 6], ints[i + 7]);
+                    i += 8;
+                    break;
+                case SAVE_POSSIBILITIES:
+                    replayer.savePossibilities();
+                    break;
+                case RESTORE_POSSIBILITIES:
+                    replayer.restorePossibilities();
+                    break;
+                default:
+                    throw new IllegalStateException();
+                }
+            }
+        }
+    }
+}
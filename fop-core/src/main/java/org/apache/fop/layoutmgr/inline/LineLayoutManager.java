@@ -68,6 +68,7 @@ import org.apache.fop.layoutmgr.LayoutManager;
 import org.apache.fop.layoutmgr.LeafPosition;
 import org.apache.fop.layoutmgr.ListElement;
 import org.apache.fop.layoutmgr.NonLeafPosition;
+import org.apache.fop.layoutmgr.PageSequenceLayoutManager;
 import org.apache.fop.layoutmgr.Position;
 import org.apache.fop.layoutmgr.PositionIterator;
 import org.apache.fop.layoutmgr.SpaceSpecifier;
@@ -169,6 +170,9 @@ public class LineLayoutManager extends InlineStackingLayoutManager
     private List<KnuthSequence> knuthParagraphs;
 
     private LineLayoutPossibilities lineLayouts;
+
+    /** Records the operations on lineLayouts while a paragraph is broken, if cacheable */
+    private LineBreakCache.Result lineBreakRecording;
     private LineLayoutPossibilities[] lineLayoutsList;
     private int ipd;
     /**
@@ -331,6 +335,9 @@ public class LineLayoutManager extends InlineStackingLayoutManager
         @Override
         public void updateData1(int lineCount, double demerits) {
             lineLayouts.addPossibility(lineCount, demerits);
+            if (lineBreakRecording != null) {
+                lineBreakRecording.addPossibility(lineCount, demerits);
+            }
             if (log.isTraceEnabled()) {
                 log.trace("Layout possibility in " + lineCount + " lines; break at position:");
             }
@@ -396,6 +403,10 @@ public class LineLayoutManager extends InlineStackingLayoutManager
             // if this LLM is nested inside a BlockContainerLayoutManager that is constraining
             // the available width and thus responsible for the overflow then we do not issue
             // warning event here and instead let the BCLM handle that at a later stage
+            if (lack < 0) {
+                // overflow handling has side effects, don't cache this paragraph
+                lineBreakRecording = null;
+            }
             if (lack < 0 && !handleOverflow(-lack)) {
                 InlineLevelEventProducer eventProducer
                     = InlineLevelEventProducer.Provider.get(
@@ -411,13 +422,17 @@ public class LineLayoutManager extends InlineStackingLayoutManager
 
             //log.debug("LLM> (" + (lineLayouts.getLineNumber(activePossibility) - addedPositions)
             //    + ") difference = " + difference + " ratio = " + ratio);
-            lineLayouts.addBreakPosition(makeLineBreakPosition(par,
-                   (bestActiveNode.line > 1 ? bestActiveNode.previous.position + 1 : 0),
-                   bestActiveNode.position,
-                   bestActiveNode.availableShrink - (addedPositions > 0
-                       ? 0 : ((Paragraph) par).lineFiller.getShrink()),
-                   bestActiveNode.availableStretch,
+            int firstElementIndex = bestActiveNode.line > 1 ? bestActiveNode.previous.position + 1 : 0;
+            int availableShrink = bestActiveNode.availableShrink - (addedPositions > 0
+                    ? 0 : ((Paragraph) par).lineFiller.getShrink());
+            lineLayouts.addBreakPosition(makeLineBreakPosition(par, firstElementIndex,
+                   bestActiveNode.position, availableShrink, bestActiveNode.availableStretch,
                    difference, ratio, startIndent, endIndent), activePossibility);
+            if (lineBreakRecording != null) {
+                lineBreakRecording.addBreakPosition(activePossibility, firstElementIndex,
+                        bestActiveNode.position, availableShrink, bestActiveNode.availableStretch,
+                        difference, ratio, startIndent, endIndent);
+            }
             addedPositions++;
         }
 
@@ -857,17 +872,18 @@ public class LineLayoutManager extends InlineStackingLayoutManager
         // use the member lineLayouts, which is read by LineBreakingAlgorithm.updateData1 and 2
         lineLayouts = new LineLayoutPossibilities();
         double maxAdjustment = 1;
-        LineBreakingAlgorithm alg = new LineBreakingAlgorithm(alignment,
+        boolean isFirstPar = (knuthParagraphs.indexOf(currPar) == 0);
+        int maxFlagCount = hyphenationLadderCount.getEnum() == EN_NO_LIMIT
+                ? 0 : hyphenationLadderCount.getValue();
+        final LineBreakingAlgorithm alg = new LineBreakingAlgorithm(alignment,
                                         textAlignment, textAlignmentLast,
                                         textIndent.getValue(this), currPar.lineFiller.getOpt(),
                                         lineHeight.getValue(this), lead, follow,
-                                        (knuthParagraphs.indexOf(currPar) == 0),
-                                        hyphenationLadderCount.getEnum() == EN_NO_LIMIT
-                                            ? 0 : hyphenationLadderCount.getValue(),
-                                        this);
+                                        isFirstPar, maxFlagCount, this);
         alg.setConstantLineWidth(ipd);
         boolean canWrap = (wrapOption != EN_NO_WRAP);
         boolean canHyphenate = (canWrap && hyphenationProperties.hyphenate.getEnum() == EN_TRUE);
+        boolean simpleLineBreaking = fobj.getUserAgent().isSimpleLineBreaking();
 
         // find hyphenation points, if allowed and not yet done
         if (canHyphenate && !hyphenationPerformed) {
@@ -877,6 +893,27 @@ public class LineLayoutManager extends InlineStackingLayoutManager
             findHyphenationPoints(currPar);
         }
 
+        // look for a paragraph with the same content that has been broken before
+        LineBreakCache cache = getLineBreakCache();
+        LineBreakCache.Key cacheKey = null;
+        if (cache != null) {
+            cacheKey = LineBreakCache.createKey(currPar, new int[] {
+                    alignment, textAlignment, textAlignmentLast, textIndent.getValue(this),
+                    isFirstPar ? 1 : 0, isFirstInBlock ? 1 : 0, maxFlagCount, ipd,
+                    canWrap ? 1 : 0, canHyphenate ? 1 : 0, simpleLineBreaking ? 1 : 0,
+                    currPar.lineFiller.getMin(), currPar.lineFiller.getOpt(),
+                    currPar.lineFiller.getMax()});
+        }
+        if (cacheKey != null) {
+            LineBreakCache.Result cached = cache.get(cacheKey);
+            if (cached != null) {
+                replayLineBreaks(cached, alg, currPar);
+                return lineLayouts;
+            }
+            lineBreakRecording = new LineBreakCache.Result();
+        }
+        int parSize = currPar.size();
+
         // first try: do not consider hyphenation points as legal breaks
         int allowedBreaks = (canWrap ? BreakingAlgorithm.NO_FLAGGED_PENALTIES
                 : BreakingAlgorithm.ONLY_FORCED_BREAKS);
@@ -887,6 +924,9 @@ public class LineLayoutManager extends InlineStackingLayoutManager
             if (breakingPoints > 0) {
                 alg.resetAlgorithm();
                 lineLayouts.savePossibilities(false);
+                if (lineBreakRecording != null) {
+                    lineBreakRecording.savePossibilities();
+                }
             } else {
                 // the first try failed
                 log.debug("No set of breaking points found with maxAdjustment = " + maxAdjustment);
@@ -894,7 +934,6 @@ public class LineLayoutManager extends InlineStackingLayoutManager
 
             // now try something different
             log.debug("Hyphenation possible? " + canHyphenate);
-            boolean simpleLineBreaking = fobj.getUserAgent().isSimpleLineBreaking();
 
             // Note: if allowedBreaks is guaranteed to be unchanged by alg.findBreakingPoints(),
             // the below check can be simplified to 'if (canHyphenate) ...'
@@ -922,11 +961,54 @@ public class LineLayoutManager extends InlineStackingLayoutManager
 
             // use non-hyphenated breaks, when possible
             lineLayouts.restorePossibilities();
+            if (lineBreakRecording != null) {
+                lineBreakRecording.restorePossibilities();
+            }
         }
 
+        // the algorithm inserts an auxiliary penalty when recovering from an overflow,
+        // which a replay would not reproduce
+        if (lineBreakRecording != null && currPar.size() == parSize) {
+            cache.put(cacheKey, lineBreakRecording);
+        }
+        lineBreakRecording = null;
         return lineLayouts;
     }
 
+    private LineBreakCache getLineBreakCache() {
+        PageSequenceLayoutManager pslm = getPSLM();
+        return pslm != null ? pslm.getLineBreakCache() : null;
+    }
+
+    /**
+     * Rebuilds the line layout possibilities for a paragraph from the breaks recorded for
+     * an identical paragraph.
+     */
+    private void replayLineBreaks(LineBreakCache.Result cached, final LineBreakingAlgorithm alg,
+            final Paragraph par) {
+        cached.replay(new LineBreakCache.Replayer() {
+            public void addPossibility(int lineCount, double demerits) {
+                lineLayouts.addPossibility(lineCount, demerits);
+            }
+
+            public void addBreakPosition(int possibility, int firstElementIndex,
+                    int lastElementIndex, int availableShrink, int availableStretch,
+                    int difference, double ratio, int startIndent, int endIndent) {
+                lineLayouts.addBreakPosition(alg.makeLineBreakPosition(par, firstElementIndex,
+                        lastElementIndex, availableShrink, availableStretch, difference, ratio,
+                        startIndent, endIndent), possibility);
+            }
+
+            public void savePossibilities() {
+                lineLayouts.savePossibilities(false);
+            }
+
+            public void restorePossibilities() {
+                lineLayouts.restorePossibilities();
+            }
+        });
+    }
+
     /**
      * Creates the element list in BP direction for the broken lines.
      * @param alignment the currently applicable vertical alignment
@@ -209,8 +209,8 @@ public class TableContentLayoutManager implements PercentBaseContext {
                 footerNetHeight += getFootnotesBPD(footnotes);
             }
         }
-        returnList.addAll(getKnuthElementsForRowIterator(
-                bodyIter, context, alignment, TableRowIterator.BODY));
+        addKnuthElementsForRowIterator(returnList, bodyIter, context, alignment,
+                TableRowIterator.BODY);
         if (headerAsFirst != null) {
             int insertionPoint = 0;
             if (returnList.size() > 0 && returnList.getFirst().isForcedBreak()) {
@@ -257,6 +257,25 @@ public class TableContentLayoutManager implements PercentBaseContext {
     private LinkedList getKnuthElementsForRowIterator(TableRowIterator iter,
             LayoutContext context, int alignment, int bodyType) {
         LinkedList<ListElement> returnList = new LinkedList<>();
+        addKnuthElementsForRowIterator(returnList, iter, context, alignment, bodyType);
+        return returnList;
+    }
+
+    /**
+     * Creates Knuth elements by iterating over a TableRowIterator and appends them to the
+     * given list. Appending in place avoids holding a second copy of the element list of
+     * the table body, which may be very large for long tables.
+     * @param returnList the list to which the elements are appended; elements already
+     * contained in it are left untouched
+     * @param iter TableRowIterator instance to fetch rows from
+     * @param context Active LayoutContext
+     * @param alignment alignment indicator
+     * @param bodyType Indicates what kind of body is being processed
+     *                  (BODY, HEADER or FOOTER)
+     */
+    private void addKnuthElementsForRowIterator(LinkedList<ListElement> returnList,
+            TableRowIterator iter, LayoutContext context, int alignment, int bodyType) {
+        int startSize = returnList.size();
         EffRow[] rowGroup = iter.getNextRowGroup();
         // TODO homogenize the handling of keeps and breaks
         context.clearKeepsPending();
@@ -328,7 +347,7 @@ public class TableContentLayoutManager implements PercentBaseContext {
          * represent the content. In such a case the break is simply disabled by setting
          * its penalty to infinite.
          */
-        if (!returnList.isEmpty()) {
+        if (returnList.size() > startSize) {
             ListIterator elemIter = returnList.listIterator(returnList.size());
             ListElement elem = (ListElement) elemIter.previous();
             if (elem instanceof KnuthGlue) {
@@ -341,18 +360,18 @@ public class TableContentLayoutManager implements PercentBaseContext {
         context.updateKeepWithPreviousPending(keepWithPrevious);
         context.setBreakBefore(breakBefore);
 
+        List<ListElement> addedElements = (startSize == 0)
+                ? returnList : returnList.subList(startSize, returnList.size());
         //fox:widow-content-limit
         int widowContentLimit = getTableLM().getTable().getWidowContentLimit().getValue();
         if (widowContentLimit != 0 && bodyType == TableRowIterator.BODY) {
-            ElementListUtils.removeLegalBreaks(returnList, widowContentLimit);
+            ElementListUtils.removeLegalBreaks(addedElements, widowContentLimit);
         }
         //fox:orphan-content-limit
         int orphanContentLimit = getTableLM().getTable().getOrphanContentLimit().getValue();
         if (orphanContentLimit != 0 && bodyType == TableRowIterator.BODY) {
-            ElementListUtils.removeLegalBreaksFromEnd(returnList, orphanContentLimit);
+            ElementListUtils.removeLegalBreaksFromEnd(addedElements, orphanContentLimit);
         }
-
-        return returnList;
     }
 
     /**
@@ -19,9 +19,10 @@
 
 package org.apache.fop.layoutmgr.table;
 
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.fop.fo.FONode;
 import org.apache.fop.fo.FONode.FONodeIterator;
@@ -65,15 +66,7 @@ public class TableRowIterator {
                 rowGroupsIter = table.getTableFooter().getRowGroups().iterator();
                 break;
             case BODY:
-                List rowGroupsList = new LinkedList();
-                // TODO this is ugly
-                for (FONodeIterator iter = table.getChildNodes(); iter.hasNext();) {
-                    FONode node = iter.next();
-                    if (node instanceof TableBody) {
-                        rowGroupsList.addAll(((TableBody) node).getRowGroups());
-                    }
-                }
-                rowGroupsIter = rowGroupsList.iterator();
+                rowGroupsIter = new BodyRowGroupsIterator(table.getChildNodes());
                 break;
             default:
                 throw new IllegalArgumentException("Unrecognised TablePart: " + tablePart);
@@ -99,4 +92,39 @@ public class TableRowIterator {
         return effRowGroup;
     }
 
+    /**
+     * Iterates over the row groups of all the table-body elements of a table, one body after
+     * the other. This avoids copying the row groups of very long tables into a separate list.
+     */
+    private static final class BodyRowGroupsIterator implements Iterator {
+
+        private final FONodeIterator children;
+
+        private Iterator current = Collections.emptyIterator();
+
+        BodyRowGroupsIterator(FONodeIterator children) {
+            this.children = children;
+        }
+
+        public boolean hasNext() {
+            while (!current.hasNext() && children != null && children.hasNext()) {
+                FONode node = children.next();
+                if (node instanceof TableBody) {
+                    current = ((TableBody) node).getRowGroups().iterator();
+                }
+            }
+            return current.hasNext();
+        }
+
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
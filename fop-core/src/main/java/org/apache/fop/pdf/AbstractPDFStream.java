@@ -222,6 +222,10 @@ public abstract class AbstractPDFStream extends PDFObject {
         CountingOutputStream cout = new CountingOutputStream(stream);
         StringBuilder textBuffer = new StringBuilder(64);
 
+        //Streams are compressed here, on the writing thread. Full object streams are compressed
+        //on worker threads (see ObjectStreamManager) because they are small, already held in
+        //memory and their output can be put off. Doing the same for these streams would mean
+        //keeping every compressed image and font around until its turn in the output.
         StreamCache encodedStream = null;
         final Object lengthEntry;
         if (encodeOnTheFly) {
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.pdf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.cms.CMSObjectIdentifiers;
+import org.bouncycastle.cms.CMSTypedData;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * CMSProcessable object for bouncy castle covering the signed byte ranges of a PDF file. The
+ * bytes before the signature's /Contents value are streamed from the unsigned file, followed by
+ * a replacement for the placeholder /ByteRange entry and the rest of the file. This way the
+ * signature is computed without writing an edited copy of the file or holding it in memory.
+ */
+class CMSProcessableByteRanges implements CMSTypedData {
+    private final InputStream in;
+    private final long startOfContents;
+    private final byte[] replacement;
+    private final long skipAfterContents;
+    private final ASN1ObjectIdentifier contentType;
+
+    /**
+     * Creates a new instance.
+     * @param in the unsigned PDF file, positioned at its start (not closed by this class)
+     * @param startOfContents the offset of the signature's /Contents value
+     * @param replacement the bytes written in place of the /Contents value and the
+     * placeholder /ByteRange entry
+     * @param skipAfterContents the number of bytes after startOfContents which are replaced
+     */
+    CMSProcessableByteRanges(InputStream in, long startOfContents, byte[] replacement,
+            long skipAfterContents) {
+        this.in = in;
+        this.startOfContents = startOfContents;
+        this.replacement = replacement;
+        this.skipAfterContents = skipAfterContents;
+        this.contentType = new ASN1ObjectIdentifier(CMSObjectIdentifiers.data.getId());
+    }
+
+    @Override
+    public Object getContent() {
+        return in;
+    }
+
+    @Override
+    public void write(OutputStream out) throws IOException {
+        // read the content only one time
+        IOUtils.copyLarge(in, out, 0, startOfContents);
+        out.write(replacement);
+        IOUtils.copyLarge(in, out, skipAfterContents, Long.MAX_VALUE);
+    }
+
+    @Override
+    public ASN1ObjectIdentifier getContentType() {
+        return contentType;
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.fop.pdf;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.apache.xmlgraphics.util.io.FlateEncodeOutputStream;
 
@@ -79,6 +81,21 @@ public class FlateFilter extends PDFFilter {
     private int colors;
     private int bitsPerComponent;
     private int columns;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int strategy = Deflater.DEFAULT_STRATEGY;
+
+    /** Creates a new flate filter using the default compression level and strategy. */
+    public FlateFilter() {
+    }
+
+    /**
+     * Creates a new flate filter with the given compression level.
+     *
+     * @param compressionLevel the compression level (0-9, or {@link Deflater#DEFAULT_COMPRESSION})
+     */
+    public FlateFilter(int compressionLevel) {
+        setCompressionLevel(compressionLevel);
+    }
 
     /**
      * Get the name of this filter.
@@ -207,13 +224,82 @@ public class FlateFilter extends PDFFilter {
         return columns;
     }
 
+    /**
+     * Sets the compression level used when this filter compresses data.
+     *
+     * @param level the compression level (0-9, or {@link Deflater#DEFAULT_COMPRESSION})
+     */
+    public void setCompressionLevel(int level) {
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+                && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.compressionLevel = level;
+    }
+
+    /**
+     * Get the compression level used when this filter compresses data.
+     *
+     * @return the compression level
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the compression strategy used when this filter compresses data.
+     *
+     * @param strategy one of {@link Deflater#DEFAULT_STRATEGY}, {@link Deflater#FILTERED}
+     * or {@link Deflater#HUFFMAN_ONLY}
+     */
+    public void setStrategy(int strategy) {
+        if (strategy != Deflater.DEFAULT_STRATEGY && strategy != Deflater.FILTERED
+                && strategy != Deflater.HUFFMAN_ONLY) {
+            throw new IllegalArgumentException("Invalid compression strategy: " + strategy);
+        }
+        this.strategy = strategy;
+    }
+
+    /**
+     * Get the compression strategy used when this filter compresses data.
+     *
+     * @return the compression strategy
+     */
+    public int getStrategy() {
+        return strategy;
+    }
 
     /** {@inheritDoc} */
     public OutputStream applyFilter(OutputStream out) throws IOException {
         if (isApplied()) {
             return out;
-        } else {
+        } else if (compressionLevel == Deflater.DEFAULT_COMPRESSION
+                && strategy == Deflater.DEFAULT_STRATEGY) {
             return new FlateEncodeOutputStream(out);
+        } else {
+            Deflater deflater = new Deflater(compressionLevel);
+            deflater.setStrategy(strategy);
+            return new DeflaterEncodeOutputStream(out, deflater);
+        }
+    }
+
+    /**
+     * Deflating stream for a non-default compression setup. Unlike a plain
+     * {@link DeflaterOutputStream} it releases its own {@link Deflater} on close.
+     */
+    private static class DeflaterEncodeOutputStream extends DeflaterOutputStream {
+
+        DeflaterEncodeOutputStream(OutputStream out, Deflater deflater) {
+            super(out, deflater);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
         }
     }
 
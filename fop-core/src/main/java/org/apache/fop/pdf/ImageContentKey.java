@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.pdf;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.commons.io.output.TeeOutputStream;
+
+/**
+ * Content-based identity of a {@link PDFImage}, used to share one image XObject between
+ * images that are loaded from different URIs but produce the same PDF object. The key
+ * consists of a SHA-256 digest over the encoded image data and every parameter that ends
+ * up in the image dictionary. Other PDF objects referenced from the dictionary (ICC
+ * streams, soft masks) are compared by identity so no object numbers need to be assigned
+ * while the key is computed.
+ */
+final class ImageContentKey {
+
+    private final byte[] digest;
+
+    private final List<Object> references;
+
+    private final int hash;
+
+    private ImageContentKey(byte[] digest, List<Object> references) {
+        this.digest = digest;
+        this.references = references;
+        this.hash = Arrays.hashCode(digest);
+    }
+
+    /**
+     * Computes the key for an image. The image must have been set up already. The image data
+     * is read only once, and a copy is written to the given stream. The copy must be used when
+     * the image is written, since the image may not be able to provide its data a second time
+     * (e.g. raw images loaded from a stream that can only be read once).
+     * @param img the image
+     * @param data the stream receiving a copy of the image data
+     * @return the key or null if the image has parameters that cannot be compared, in which
+     *          case the image data has not been read
+     * @throws IOException if the image data cannot be read
+     */
+    static ImageContentKey create(PDFImage img, OutputStream data) throws IOException {
+        final MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        DataOutputStream out = new DataOutputStream(new OutputStream() {
+            public void write(int b) {
+                md.update((byte) b);
+            }
+
+            public void write(byte[] b, int off, int len) {
+                md.update(b, off, len);
+            }
+        });
+        List<Object> references = new ArrayList<Object>();
+        out.writeUTF(img.getClass().getName());
+        out.writeBoolean(img.isPS());
+        out.writeInt(img.getWidth());
+        out.writeInt(img.getHeight());
+        out.writeInt(img.getBitsPerComponent());
+        if (img.getICCStream() != null) {
+            references.add(img.getICCStream());
+        } else if (img.getColorSpace() != null) {
+            out.writeUTF(img.getColorSpace().getName());
+        }
+        out.writeBoolean(img.isInverted());
+        if (img.isTransparent()) {
+            PDFColor transp = img.getTransparentColor();
+            out.writeInt(transp.red255());
+            out.writeInt(transp.green255());
+            out.writeInt(transp.blue255());
+        }
+        if (!writeValue(img.getMask(), out, references)
+                || !writeValue(img.getSoftMaskReference(), out, references)
+                || !writeValue(img.getFilterHint(), out, references)) {
+            return null;
+        }
+        out.writeBoolean(img.multipleFiltersAllowed());
+        PDFFilter filter = img.getPDFFilter();
+        if (filter != null) {
+            out.writeUTF(filter.getClass().getName());
+            if (!writeValue(filter.getDecodeParms(), out, references)) {
+                return null;
+            }
+        }
+        PDFDictionary dict = new PDFDictionary();
+        img.populateXObjectDictionary(dict);
+        if (!writeValue(dict, out, references)) {
+            return null;
+        }
+        out.flush();
+        img.outputContents(new TeeOutputStream(out, data));
+        out.flush();
+        return new ImageContentKey(md.digest(), references);
+    }
+
+    private static boolean writeValue(Object value, DataOutputStream out, List<Object> references)
+            throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+        } else if (value instanceof PDFReference) {
+            PDFObject obj = ((PDFReference) value).getObject();
+            if (obj != null) {
+                return writeValue(obj, out, references);
+            }
+            out.writeByte(1);
+            writeString(value.toString(), out);
+        } else if (value instanceof PDFObject && ((PDFObject) value).hasObjectNumber()) {
+            out.writeByte(2);
+            out.writeInt(references.size());
+            references.add(value);
+        } else if (value instanceof String) {
+            out.writeByte(3);
+            writeString((String) value, out);
+        } else if (value instanceof PDFName || value instanceof Number || value instanceof Boolean) {
+            out.writeByte(4);
+            writeString(value.getClass().getName() + ':' + value, out);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(5);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof PDFArray) {
+            PDFArray array = (PDFArray) value;
+            out.writeByte(6);
+            out.writeInt(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                if (!writeValue(array.get(i), out, references)) {
+                    return false;
+                }
+            }
+        } else if (value instanceof PDFDictionary && !(value instanceof PDFStream)) {
+            PDFDictionary dict = (PDFDictionary) value;
+            out.writeByte(7);
+            out.writeInt(dict.keySet().size());
+            for (String key : new TreeSet<String>(dict.keySet())) {
+                writeString(key, out);
+                if (!writeValue(dict.get(key), out, references)) {
+                    return false;
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void writeString(String s, DataOutputStream out) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ImageContentKey)) {
+            return false;
+        }
+        ImageContentKey other = (ImageContentKey) obj;
+        if (!Arrays.equals(digest, other.digest)
+                || references.size() != other.references.size()) {
+            return false;
+        }
+        for (int i = 0; i < references.size(); i++) {
+            if (references.get(i) != other.references.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
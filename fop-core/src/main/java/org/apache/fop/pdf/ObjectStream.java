@@ -21,9 +21,14 @@ package org.apache.fop.pdf;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.fop.pdf.xref.CompressedObjectReference;
 
@@ -38,6 +43,10 @@ public class ObjectStream extends PDFStream {
 
     private int firstObjectOffset;
 
+    private boolean serialized;
+
+    private Future<StreamCache> pendingEncoding;
+
     ObjectStream() {
         super(false);
     }
@@ -57,8 +66,16 @@ public class ObjectStream extends PDFStream {
         return reference;
     }
 
-    @Override
-    protected void outputRawStreamData(OutputStream out) throws IOException {
+    /**
+     * Serializes the contained objects into this stream's buffer. This must happen on the
+     * thread writing the document since objects may register further objects while they are
+     * being serialized.
+     */
+    private void serializeObjects() throws IOException {
+        if (serialized) {
+            return;
+        }
+        serialized = true;
         int currentOffset = 0;
         StringBuilder offsetsPart = new StringBuilder();
         ByteArrayOutputStream streamContent = new ByteArrayOutputStream();
@@ -71,10 +88,60 @@ public class ObjectStream extends PDFStream {
         }
         byte[] offsets = PDFDocument.encode(offsetsPart.toString());
         firstObjectOffset = offsets.length;
+        OutputStream out = getBufferOutputStream();
         out.write(offsets);
         streamContent.writeTo(out);
     }
 
+    /**
+     * Serializes the objects of this stream and hands the compression of the result over to
+     * the given executor. The stream must not receive any more objects after this call, and
+     * its filters must not depend on state shared with other streams (i.e. encryption must
+     * not be active).
+     * @param executor the executor running the compression
+     * @throws IOException if serializing the objects fails
+     */
+    void startEncoding(ExecutorService executor) throws IOException {
+        serializeObjects();
+        setupFilterList();
+        pendingEncoding = executor.submit(new Callable<StreamCache>() {
+            public StreamCache call() throws IOException {
+                return ObjectStream.super.encodeStream();
+            }
+        });
+    }
+
+    @Override
+    protected StreamCache encodeStream() throws IOException {
+        if (pendingEncoding == null) {
+            return super.encodeStream();
+        }
+        try {
+            return pendingEncoding.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing object stream");
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            pendingEncoding = null;
+        }
+    }
+
+    @Override
+    protected void outputRawStreamData(OutputStream out) throws IOException {
+        serializeObjects();
+        super.outputRawStreamData(out);
+    }
+
     @Override
     protected void populateStreamDict(Object lengthEntry) {
         put("Type", OBJ_STM);
@@ -19,8 +19,13 @@
 
 package org.apache.fop.pdf;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.fop.pdf.xref.CompressedObjectReference;
 
@@ -33,6 +38,9 @@ class ObjectStreamManager {
 
     private static final int OBJECT_STREAM_CAPACITY = 100;
 
+    /** The writing thread keeps one processor busy, the others may compress object streams. */
+    private static final int ENCODING_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors() - 1);
+
     private final PDFDocument pdfDocument;
 
     private final List<CompressedObjectReference> compressedObjectReferences;
@@ -41,14 +49,32 @@ class ObjectStreamManager {
 
     private ObjectStream currentObjectStream;
 
+    private final List<ObjectStream> completedObjectStreams = new ArrayList<ObjectStream>();
+
+    private final int encodingThreads;
+
+    private ThreadPoolExecutor encoder;
+
     ObjectStreamManager(PDFDocument pdfDocument) {
+        this(pdfDocument, ENCODING_THREADS);
+    }
+
+    /**
+     * Creates a new manager.
+     * @param pdfDocument the document the object streams belong to
+     * @param encodingThreads the number of threads compressing full object streams, 0 to
+     * compress them on the writing thread
+     */
+    ObjectStreamManager(PDFDocument pdfDocument, int encodingThreads) {
         this.pdfDocument = pdfDocument;
+        this.encodingThreads = encodingThreads;
         createObjectStream();
         compressedObjectReferences = new ArrayList<CompressedObjectReference>();
     }
 
     void add(CompressedObject compressedObject) {
         if (numObjectsInStream++ == OBJECT_STREAM_CAPACITY) {
+            completedObjectStreams.add(currentObjectStream);
             createObjectStream();
             numObjectsInStream = 1;
         }
@@ -63,6 +89,56 @@ class ObjectStreamManager {
         pdfDocument.addTrailerObject(currentObjectStream);
     }
 
+    /**
+     * Returns the object streams that have been filled up since the last call. They will not
+     * receive any more objects and can be written out straight away.
+     */
+    List<ObjectStream> takeCompletedObjectStreams() {
+        List<ObjectStream> completed = new ArrayList<ObjectStream>(completedObjectStreams);
+        completedObjectStreams.clear();
+        return completed;
+    }
+
+    /**
+     * Starts compressing a completed object stream on a worker thread. The objects are
+     * serialized straight away, only the compression runs in the background, so the stream
+     * should be written some time later to benefit from it. Nothing is started when the
+     * document is encrypted since the encryption state is shared between all streams.
+     * @param objectStream an object stream returned by {@link #takeCompletedObjectStreams()}
+     * @return true if the compression was started, false if it will happen when the stream
+     * is written
+     * @throws IOException if serializing the objects fails
+     */
+    boolean startEncoding(ObjectStream objectStream) throws IOException {
+        if (encodingThreads < 1 || pdfDocument.isEncryptionActive()) {
+            return false;
+        }
+        if (encoder == null) {
+            encoder = new ThreadPoolExecutor(encodingThreads, encodingThreads, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "FOP object stream encoder");
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+            encoder.allowCoreThreadTimeOut(true);
+        }
+        objectStream.startEncoding(encoder);
+        return true;
+    }
+
+    /**
+     * Releases the worker threads once all the object streams have been handed out. Compression
+     * that has already been started is not affected.
+     */
+    void shutdown() {
+        if (encoder != null) {
+            encoder.shutdown();
+            encoder = null;
+        }
+    }
+
     List<CompressedObjectReference> getCompressedObjectReferences() {
         return compressedObjectReferences;
     }
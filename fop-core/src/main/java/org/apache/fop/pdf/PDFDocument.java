@@ -41,6 +41,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.apache.xmlgraphics.image.loader.util.SoftMapCache;
 
+import org.apache.fop.fonts.FontSubsetCache;
 import org.apache.fop.pdf.StandardStructureAttributes.Table.Scope;
 import org.apache.fop.pdf.xref.CrossReferenceStream;
 import org.apache.fop.pdf.xref.CrossReferenceTable;
@@ -137,6 +138,7 @@ public class PDFDocument {
     /* TODO: Should be modified (works only for image subtype) */
     private Map<String, PDFXObject> xObjectsMap = new HashMap<String, PDFXObject>();
     private SoftMapCache xObjectsMapFast = new SoftMapCache(false);
+    private Map<ImageContentKey, PDFImageXObject> imagesByContent;
 
     private Map<String, PDFFont> fontMap = new HashMap<String, PDFFont>();
 
@@ -176,6 +178,8 @@ public class PDFDocument {
 
     private ObjectStreamManager objectStreamManager;
 
+    private final List<ObjectStream> encodingObjectStreams = new ArrayList<ObjectStream>();
+
     private boolean accessibilityEnabled;
 
     private boolean staticRegionsPerPageForAccessibility;
@@ -188,10 +192,20 @@ public class PDFDocument {
 
     private boolean formXObjectEnabled;
 
+    private boolean imageDeduplicationEnabled;
+
     protected boolean outputStarted;
 
     private boolean objectStreamsEnabled;
 
+    private FontSubsetCache fontSubsetCache;
+
+    private long bufferedStreamBytes;
+
+    private int spilledStreamCount;
+
+    private long spilledStreamBytes;
+
     /**
      * Creates an empty PDF document.
      *
@@ -915,17 +929,111 @@ public class PDFDocument {
 
         // setup image
         img.setup(this);
+        ImageContentKey contentKey = null;
+        StreamCache imageData = null;
+        if (imageDeduplicationEnabled) {
+            try {
+                imageData = StreamCacheFactory.getInstance().createStreamCache();
+                contentKey = getImageContentKey(img, imageData);
+            } catch (IOException ioe) {
+                log.debug("Could not buffer data of image " + key, ioe);
+            }
+            xObject = contentKey != null ? imagesByContent.get(contentKey) : null;
+            if (xObject != null) {
+                discardImageData(imageData);
+                if (res != null) {
+                    res.addXObject(xObject);
+                }
+                putXObject(key, xObject);
+                return xObject;
+            }
+        }
         // create a new XObject
         xObject = new PDFImageXObject(++this.xObjectCount, img);
+        if (contentKey != null) {
+            //The image data has been read to compute the key, write that copy
+            xObject.setImageData(imageData);
+        } else {
+            discardImageData(imageData);
+        }
         registerObject(xObject);
         this.resources.addXObject(xObject);
         if (res != null) {
             res.addXObject(xObject);
         }
         putXObject(key, xObject);
+        if (contentKey != null) {
+            imagesByContent.put(contentKey, xObject);
+        }
         return xObject;
     }
 
+    private ImageContentKey getImageContentKey(PDFImage img, StreamCache imageData) {
+        if (imagesByContent == null) {
+            imagesByContent = new HashMap<ImageContentKey, PDFImageXObject>();
+        }
+        try {
+            return ImageContentKey.create(img, imageData.getOutputStream());
+        } catch (IOException ioe) {
+            log.debug("Could not compute content key for image " + img.getKey(), ioe);
+            return null;
+        }
+    }
+
+    private void discardImageData(StreamCache imageData) {
+        if (imageData != null) {
+            try {
+                releaseStreamCache(imageData);
+            } catch (IOException ioe) {
+                log.debug("Could not discard image data", ioe);
+            }
+        }
+    }
+
+    /**
+     * Clears a stream buffer that is no longer needed and adds it to the buffer statistics
+     * of this document. Clearing deletes the temporary file of a buffer that was moved out
+     * of memory.
+     * @param cache the buffer to release
+     * @throws IOException if the buffer cannot be cleared
+     */
+    void releaseStreamCache(StreamCache cache) throws IOException {
+        int size = cache.getSize();
+        bufferedStreamBytes += size;
+        if (cache instanceof SpillingStreamCache && ((SpillingStreamCache) cache).isSpilled()) {
+            spilledStreamCount++;
+            spilledStreamBytes += size;
+        }
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of bytes the streams of this document have buffered. A stream is
+     * counted once its contents have been written and released.
+     * @return the number of buffered bytes
+     */
+    public long getBufferedStreamBytes() {
+        return bufferedStreamBytes;
+    }
+
+    /**
+     * Returns the number of streams of this document that were moved to temporary files
+     * (see {@link StreamCacheFactory#SPILL_THRESHOLD_PROPERTY}).
+     * @return the number of spilled streams
+     */
+    public int getSpilledStreamCount() {
+        return spilledStreamCount;
+    }
+
+    /**
+     * Returns the number of bytes the streams of this document have written to temporary
+     * files.
+     * @return the number of spilled bytes
+     */
+    public long getSpilledStreamBytes() {
+        return spilledStreamBytes;
+    }
+
     /**
      * Add a form XObject to the PDF document.
      * This adds a Form XObject to the PDF objects.
@@ -1057,6 +1165,24 @@ public class PDFDocument {
                 }
             }
             objects.addAll(indirectObjects);
+            if (objectStreamManager != null) {
+                //Full object streams are written now instead of being kept until the trailer.
+                //Those compressing in the background are written by the next call, giving the
+                //workers time to finish while the other objects are written.
+                for (ObjectStream objectStream : encodingObjectStreams) {
+                    trailerObjects.remove(objectStream);
+                    objects.add(objectStream);
+                }
+                encodingObjectStreams.clear();
+                for (ObjectStream objectStream : objectStreamManager.takeCompletedObjectStreams()) {
+                    if (objectStreamManager.startEncoding(objectStream)) {
+                        encodingObjectStreams.add(objectStream);
+                    } else {
+                        trailerObjects.remove(objectStream);
+                        objects.add(objectStream);
+                    }
+                }
+            }
         }
 
         while (objects.size() > 0) {
@@ -1202,6 +1328,9 @@ public class PDFDocument {
             trailerOutputHelper.outputStructureTreeElements(stream);
         }
         streamIndirectObjects(trailerObjects, stream);
+        if (objectStreamManager != null) {
+            objectStreamManager.shutdown();
+        }
         TrailerDictionary trailerDictionary = createTrailerDictionary(true);
         long startxref = trailerOutputHelper.outputCrossReferenceObject(stream, trailerDictionary, 0,
                 indirectObjectOffsets.size(), indirectObjectOffsets.size());
@@ -1230,6 +1359,22 @@ public class PDFDocument {
         return trailerDictionary;
     }
 
+    /**
+     * Returns the cache of font subsets shared with other documents.
+     * @return the font subset cache or null if none is used
+     */
+    public FontSubsetCache getFontSubsetCache() {
+        return fontSubsetCache;
+    }
+
+    /**
+     * Sets the cache of font subsets shared with other documents.
+     * @param fontSubsetCache the font subset cache or null
+     */
+    public void setFontSubsetCache(FontSubsetCache fontSubsetCache) {
+        this.fontSubsetCache = fontSubsetCache;
+    }
+
     public boolean isMergeFontsEnabled() {
         return mergeFontsEnabled;
     }
@@ -1277,7 +1422,7 @@ public class PDFDocument {
     }
 
     private class CompressedTrailerOutputHelper implements TrailerOutputHelper {
-        public void outputStructureTreeElements(OutputStream stream) {
+        public void outputStructureTreeElements(OutputStream stream) throws IOException {
             assert structureTreeElements.size() > 0;
             if (objectStreamManager == null) {
                 objectStreamManager = new ObjectStreamManager(PDFDocument.this);
@@ -1285,6 +1430,10 @@ public class PDFDocument {
             for (PDFStructElem structElem : structureTreeElements) {
                 objectStreamManager.add(structElem);
             }
+            //The filled up streams remain trailer objects, compress them while the others are written
+            for (ObjectStream objectStream : objectStreamManager.takeCompletedObjectStreams()) {
+                objectStreamManager.startEncoding(objectStream);
+            }
         }
 
         public long outputCrossReferenceObject(OutputStream stream,
@@ -1329,6 +1478,27 @@ public class PDFDocument {
         formXObjectEnabled = b;
     }
 
+    /**
+     * Indicates whether images with identical encoded content share one image XObject even
+     * if they were loaded under different keys (URIs).
+     * @return true if content based image deduplication is enabled
+     */
+    public boolean isImageDeduplicationEnabled() {
+        return imageDeduplicationEnabled;
+    }
+
+    /**
+     * Enables or disables content based image deduplication. When enabled, the data of every
+     * new image is produced (and, for images that are not already encoded, encoded) as soon
+     * as the image is added so it can be hashed. That data is buffered until the image is
+     * written, which costs memory or temporary file space (see {@link StreamCacheFactory})
+     * for large images but avoids embedding the same artwork several times.
+     * @param b true to enable content based image deduplication
+     */
+    public void setImageDeduplicationEnabled(boolean b) {
+        imageDeduplicationEnabled = b;
+    }
+
     public void setObjectStreamsEnabled(boolean b) {
         objectStreamsEnabled = b;
     }
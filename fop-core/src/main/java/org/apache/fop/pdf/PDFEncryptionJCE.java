@@ -58,6 +58,24 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
 
     private static byte[] ivZero = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
 
+    /*
+     * Ciphers reused by encryptWithKey for strings and other short data. The stream filters
+     * get their own instances because the strings of the objects in an object stream are
+     * encrypted while the stream's cipher is in use.
+     */
+    private Cipher rc4Cipher;
+
+    private Cipher aesCipher;
+
+    private Cipher aesNoPaddingCipher;
+
+    /* The last key computed by createEncryptionKey(int, int), most strings share their object */
+    private int cachedKeyObjectNumber = -1;
+
+    private int cachedKeyGeneration;
+
+    private byte[] cachedKey;
+
     private class EncryptionInitializer {
 
         private final PDFEncryptionParams encryptionParams;
@@ -645,13 +663,13 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
             if (useAlgorithm31a) {
                 byte[] iv = new byte[16];
                 random.nextBytes(iv);
-                Cipher cipher = initCipher(encryptionKey, false, iv);
+                Cipher cipher = initCipher(null, encryptionKey, false, iv);
                 out.write(iv);
                 out.flush();
                 return new CipherOutputStream(out, cipher);
             } else {
                 byte[] key = createEncryptionKey(streamNumber.getNumber(), streamGeneration);
-                Cipher cipher = initCipher(key);
+                Cipher cipher = initCipher(null, key);
                 return new CipherOutputStream(out, cipher);
             }
         }
@@ -735,10 +753,10 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
         return "/Encrypt " + getObjectNumber() + " " + getGeneration() + " R\n";
     }
 
-    private static byte[] encryptWithKey(byte[] key, byte[] data) {
+    private byte[] encryptWithKey(byte[] key, byte[] data) {
         try {
-            final Cipher c = initCipher(key);
-            return c.doFinal(data);
+            rc4Cipher = initCipher(rc4Cipher, key);
+            return rc4Cipher.doFinal(data);
         } catch (IllegalBlockSizeException e) {
             throw new IllegalStateException(e.getMessage());
         } catch (BadPaddingException e) {
@@ -746,9 +764,16 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
         }
     }
 
-    private static byte[] encryptWithKey(byte[] key, byte[] data, boolean noPadding, byte[] iv) {
+    private byte[] encryptWithKey(byte[] key, byte[] data, boolean noPadding, byte[] iv) {
         try {
-            final Cipher c = initCipher(key, noPadding, iv);
+            final Cipher c;
+            if (noPadding) {
+                aesNoPaddingCipher = initCipher(aesNoPaddingCipher, key, true, iv);
+                c = aesNoPaddingCipher;
+            } else {
+                aesCipher = initCipher(aesCipher, key, false, iv);
+                c = aesCipher;
+            }
             return c.doFinal(data);
         } catch (IllegalBlockSizeException e) {
             throw new IllegalStateException(e.getMessage());
@@ -757,10 +782,19 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
         }
     }
 
-    private static Cipher initCipher(byte[] key) {
+    /**
+     * Initializes an RC4 cipher for encryption with the given key.
+     *
+     * @param cipher the cipher to reinitialize, or null to create a new one
+     * @param key the encryption key
+     * @return the initialized cipher
+     */
+    private static Cipher initCipher(Cipher cipher, byte[] key) {
         try {
             SecretKeySpec keyspec = new SecretKeySpec(key, "RC4");
-            Cipher cipher = Cipher.getInstance("RC4");
+            if (cipher == null) {
+                cipher = Cipher.getInstance("RC4");
+            }
             cipher.init(Cipher.ENCRYPT_MODE, keyspec);
             return cipher;
         } catch (InvalidKeyException e) {
@@ -772,12 +806,24 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
         }
     }
 
-    private static Cipher initCipher(byte[] key, boolean noPadding, byte[] iv) {
+    /**
+     * Initializes an AES cipher in CBC mode for encryption with the given key.
+     *
+     * @param cipher the cipher to reinitialize, or null to create a new one; it must
+     * have been created with the same padding
+     * @param key the encryption key
+     * @param noPadding true for no padding, false for PKCS5 padding
+     * @param iv the initialization vector
+     * @return the initialized cipher
+     */
+    private static Cipher initCipher(Cipher cipher, byte[] key, boolean noPadding, byte[] iv) {
         try {
             SecretKeySpec skeySpec = new SecretKeySpec(key, "AES");
             IvParameterSpec ivspec = new IvParameterSpec(iv);
-            Cipher cipher = noPadding ? Cipher.getInstance("AES/CBC/NoPadding") : Cipher
-                    .getInstance("AES/CBC/PKCS5Padding");
+            if (cipher == null) {
+                cipher = noPadding ? Cipher.getInstance("AES/CBC/NoPadding") : Cipher
+                        .getInstance("AES/CBC/PKCS5Padding");
+            }
             cipher.init(Cipher.ENCRYPT_MODE, skeySpec, ivspec);
             return cipher;
         } catch (InvalidKeyException e) {
@@ -799,6 +845,9 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
      * @return the key to use for encryption
      */
     private byte[] createEncryptionKey(int objectNumber, int generationNumber) {
+        if (objectNumber == cachedKeyObjectNumber && generationNumber == cachedKeyGeneration) {
+            return cachedKey;
+        }
         // Step 1 passed in
         // Step 2
         byte[] md5Input = prepareMD5Input(objectNumber, generationNumber);
@@ -809,6 +858,9 @@ public final class PDFEncryptionJCE extends PDFObject implements PDFEncryption {
         int keyLength = Math.min(16, md5Input.length);
         byte[] key = new byte[keyLength];
         System.arraycopy(hash, 0, key, 0, keyLength);
+        cachedKeyObjectNumber = objectNumber;
+        cachedKeyGeneration = generationNumber;
+        cachedKey = key;
         return key;
     }
 
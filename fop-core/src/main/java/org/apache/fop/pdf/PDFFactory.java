@@ -53,6 +53,7 @@ import org.apache.fop.fonts.CustomFont;
 import org.apache.fop.fonts.EmbeddingMode;
 import org.apache.fop.fonts.FontDescriptor;
 import org.apache.fop.fonts.FontMetrics;
+import org.apache.fop.fonts.FontSubsetCache;
 import org.apache.fop.fonts.FontType;
 import org.apache.fop.fonts.LazyFont;
 import org.apache.fop.fonts.MultiByteFont;
@@ -1385,6 +1386,10 @@ public class PDFFactory {
 
         InputStream in = null;
         try {
+            byte[] cachedSubset = getCachedFontSubset(desc, font);
+            if (cachedSubset != null) {
+                return getFontStream(font, cachedSubset, false);
+            }
             in = font.getInputStream();
             if (in == null) {
                 return null;
@@ -1480,8 +1485,34 @@ public class PDFFactory {
         } else {
             TTFSubSetFile otfFile = new TTFSubSetFile();
             otfFile.readFont(reader, mbfont.getTTCName(), header, mbfont.getUsedGlyphs());
-            return otfFile.getFontSubset();
+            byte[] subset = otfFile.getFontSubset();
+            FontSubsetCache cache = document.getFontSubsetCache();
+            if (cache != null && mbfont.getFontURI() != null) {
+                cache.put(mbfont.getFontURI(), mbfont.getTTCName(), mbfont.getUsedGlyphs(), subset);
+            }
+            return subset;
+        }
+    }
+
+    /**
+     * Returns a TrueType subset built for an earlier document with exactly the same glyphs,
+     * if the document shares a font subset cache. CFF subsets are not cached since they
+     * carry the document specific subset prefix in their name. Type 1 subsets are not cached
+     * either: they are only built with embedding-mode="subset", which is not the default for
+     * Type 1 fonts, and Type1SubsetFile works from the glyph names and encodings of the
+     * SingleByteFont rather than from the glyph index mapping the cache is keyed on.
+     */
+    private byte[] getCachedFontSubset(FontDescriptor desc, CustomFont font) {
+        FontSubsetCache cache = document.getFontSubsetCache();
+        if (cache == null || desc.getFontType() != FontType.TYPE0
+                || font.getEmbeddingMode() == EmbeddingMode.FULL || font.getFontURI() == null) {
+            return null;
+        }
+        MultiByteFont mbfont = (MultiByteFont) font;
+        if (mbfont.isOTFFile()) {
+            return null;
         }
+        return cache.get(mbfont.getFontURI(), mbfont.getTTCName(), mbfont.getUsedGlyphs());
     }
 
     private AbstractPDFStream getFontStream(CustomFont font, byte[] fontBytes, boolean isCFF)
@@ -24,6 +24,7 @@ import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
 
 /**
  * This class represents a list of PDF filters to be applied when serializing
@@ -48,6 +49,14 @@ public class PDFFilterList {
     /** Key for the filter used for metadata */
     public static final String METADATA_FILTER = "metadata";
 
+    /**
+     * Prefix of a filter name selecting flate with an explicit compression level,
+     * e.g. "flate-1" for fastest or "flate-9" for best compression. The level may be
+     * followed by a Deflater strategy: "default", "filtered" or "huffman-only",
+     * e.g. "flate-6-filtered".
+     */
+    public static final String FLATE_LEVEL_PREFIX = "flate-";
+
     private List<PDFFilter> filters = new java.util.ArrayList<PDFFilter>();
 
     private boolean ignoreASCIIFilters;
@@ -123,6 +132,8 @@ public class PDFFilterList {
         }
         if (filterType.equals("flate")) {
             addFilter(new FlateFilter());
+        } else if (filterType.startsWith(FLATE_LEVEL_PREFIX)) {
+            addFilter(createFlateFilter(filterType));
         } else if (filterType.equals("null")) {
             addFilter(new NullFilter());
         } else if (filterType.equals("ascii-85")) {
@@ -143,6 +154,30 @@ public class PDFFilterList {
         }
     }
 
+    private static FlateFilter createFlateFilter(String filterType) {
+        String[] parts = filterType.substring(FLATE_LEVEL_PREFIX.length()).split("-", 2);
+        FlateFilter filter;
+        try {
+            filter = new FlateFilter(Integer.parseInt(parts[0]));
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(
+                "Unsupported filter type in stream-filter-list: " + filterType);
+        }
+        if (parts.length > 1) {
+            if (parts[1].equals("default")) {
+                filter.setStrategy(Deflater.DEFAULT_STRATEGY);
+            } else if (parts[1].equals("filtered")) {
+                filter.setStrategy(Deflater.FILTERED);
+            } else if (parts[1].equals("huffman-only")) {
+                filter.setStrategy(Deflater.HUFFMAN_ONLY);
+            } else {
+                throw new IllegalArgumentException(
+                    "Unsupported filter type in stream-filter-list: " + filterType);
+            }
+        }
+        return filter;
+    }
+
     /**
      * Checks the filter list for the filter and adds it in the correct
      * place if necessary.
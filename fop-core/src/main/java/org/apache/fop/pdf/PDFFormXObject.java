@@ -164,6 +164,7 @@ public class PDFFormXObject extends PDFXObject {
         final int len = super.output(stream);
 
         //Now that the data has been written, it can be discarded.
+        this.contents.releaseData();
         this.contents = null;
         return len;
     }
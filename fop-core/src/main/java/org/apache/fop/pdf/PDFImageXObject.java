@@ -43,6 +43,8 @@ public class PDFImageXObject extends PDFXObject {
 
     private PDFImage pdfimage;
 
+    private StreamCache imageData;
+
     /**
      * create an XObject with the given number and name and load the
      * image in the object
@@ -56,6 +58,15 @@ public class PDFImageXObject extends PDFXObject {
         pdfimage = img;
     }
 
+    /**
+     * Sets the image data to write instead of asking the image for it. This is used when the
+     * data has already been read from the image, e.g. to compare it with other images.
+     * @param data the image data, as the image would have output it
+     */
+    void setImageData(StreamCache data) {
+        this.imageData = data;
+    }
+
     /**
      * Output the image as PDF.
      * This sets up the image dictionary and adds the image data stream.
@@ -67,7 +78,7 @@ public class PDFImageXObject extends PDFXObject {
     public int output(OutputStream stream) throws IOException {
         if (getDocument().getProfile().isPDFVTActive()) {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            pdfimage.outputContents(baos);
+            outputImageData(baos);
             put("GTS_XID", "uuid:" + UUID.nameUUIDFromBytes(baos.toByteArray()));
         }
         int length = super.output(stream);
@@ -76,6 +87,10 @@ public class PDFImageXObject extends PDFXObject {
         // this object is retained as a reference to inserting
         // the same image but the image data is no longer needed
         pdfimage = null;
+        if (imageData != null) {
+            getDocument().releaseStreamCache(imageData);
+            imageData = null;
+        }
         return length;
     }
 
@@ -150,7 +165,15 @@ public class PDFImageXObject extends PDFXObject {
 
     /** {@inheritDoc} */
     protected void outputRawStreamData(OutputStream out) throws IOException {
-        pdfimage.outputContents(out);
+        outputImageData(out);
+    }
+
+    private void outputImageData(OutputStream out) throws IOException {
+        if (imageData != null) {
+            imageData.outputContents(out);
+        } else {
+            pdfimage.outputContents(out);
+        }
     }
 
     /** {@inheritDoc} */
@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +40,8 @@ public class PDFLinearization {
     private Map<PDFPage, Set<PDFObject>> pageObjsMap = new HashMap<PDFPage, Set<PDFObject>>();
     private PDFDictionary linearDict;
     private HintTable hintTable;
+    /** the objects of doc.objects that haven't been written yet, avoids linear lookups in the list */
+    private Set<PDFObject> pendingObjects;
 
     public PDFLinearization(PDFDocument doc) {
         this.doc = doc;
@@ -255,8 +259,16 @@ public class PDFLinearization {
         }
         Set<PDFObject> page1Children = assignNumbers();
         doc.streamIndirectObject(linearDict, new ByteArrayOutputStream());
-        for (PDFObject o : page1Children) {
-            doc.objects.remove(o);
+        Set<PDFObject> page1Objects = newIdentitySet();
+        page1Objects.addAll(page1Children);
+        pendingObjects = newIdentitySet();
+        for (Iterator<PDFObject> iter = doc.objects.iterator(); iter.hasNext();) {
+            PDFObject o = iter.next();
+            if (page1Objects.contains(o)) {
+                iter.remove();
+            } else {
+                pendingObjects.add(o);
+            }
         }
         int sizeOfRest = doc.objects.size();
 
@@ -286,8 +298,8 @@ public class PDFLinearization {
                 break;
             }
         }
-        stream.write(pageStream.toByteArray());
-        stream.write(footerTrailerStream.toByteArray());
+        pageStream.writeTo(stream);
+        footerTrailerStream.writeTo(stream);
     }
 
     private Set<PDFObject> getPage1Children() throws IOException {
@@ -311,6 +323,10 @@ public class PDFLinearization {
         return page1Children;
     }
 
+    private static Set<PDFObject> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<PDFObject, Boolean>());
+    }
+
     private static void writePadding(int padding, OutputStream stream) throws IOException {
         for (int i = 0; i < padding; i++) {
             stream.write(" ".getBytes(StandardCharsets.UTF_8));
@@ -325,8 +341,10 @@ public class PDFLinearization {
                 writePage(page, pageStream);
             }
         }
-        while (!doc.objects.isEmpty()) {
-            PDFObject o = doc.objects.remove(0);
+        for (PDFObject o : doc.objects) {
+            if (!pendingObjects.remove(o)) {
+                continue;
+            }
             if (o instanceof PDFOutline) {
                 writeObjectGroup("/O", getChildren(o), pageStream);
             } else if (o instanceof PDFDests) {
@@ -341,6 +359,7 @@ public class PDFLinearization {
                 doc.streamIndirectObject(o, pageStream);
             }
         }
+        doc.objects.clear();
         linearDict.put("/T", doc.position + 8 + String.valueOf(sizeOfRest).length());
     }
 
@@ -355,7 +374,7 @@ public class PDFLinearization {
         values[2] = children.size();
         for (PDFObject o : children) {
             values[3] += doc.streamIndirectObject(o, pageStream);
-            doc.objects.remove(o);
+            pendingObjects.remove(o);
         }
     }
 
@@ -407,13 +426,12 @@ public class PDFLinearization {
         int pageLen = 0;
         int objCount = 0;
         for (PDFObject c : children) {
-            if (doc.objects.contains(c)) {
+            if (pendingObjects.remove(c)) {
                 int len = doc.streamIndirectObject(c, pageStream);
                 if (c instanceof PDFStream) {
                     hintTable.contentStreamLengths.set(page.pageIndex, len);
                 }
                 pageLen += len;
-                doc.objects.remove(c);
                 objCount++;
             }
         }
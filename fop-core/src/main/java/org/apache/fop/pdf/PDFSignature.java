@@ -39,6 +39,7 @@ import org.bouncycastle.cert.jcajce.JcaCertStore;
 import org.bouncycastle.cms.CMSException;
 import org.bouncycastle.cms.CMSSignedData;
 import org.bouncycastle.cms.CMSSignedDataGenerator;
+import org.bouncycastle.cms.CMSTypedData;
 import org.bouncycastle.cms.jcajce.JcaSignerInfoGeneratorBuilder;
 import org.bouncycastle.operator.ContentSigner;
 import org.bouncycastle.operator.OperatorException;
@@ -46,6 +47,7 @@ import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.io.output.CountingOutputStream;
 
 import org.apache.xmlgraphics.io.TempResourceURIGenerator;
@@ -53,16 +55,16 @@ import org.apache.xmlgraphics.io.TempResourceURIGenerator;
 import org.apache.fop.apps.FOUserAgent;
 
 public class PDFSignature {
-    private static final int SIZE_OF_CONTENTS = 18944;
     private static final TempResourceURIGenerator TEMP_URI_GENERATOR = new TempResourceURIGenerator("pdfsign2");
+    private static final int SIZE_OF_CONTENTS = 18944;
     private Perms perms;
     private PDFRoot root;
     private PrivateKey privateKey;
     private long startOfDocMDP;
     private long startOfContents;
     private FOUserAgent userAgent;
-    private URI tempURI;
     private PDFSignParams signParams;
+    private URI tempURI;
 
     static class TransformParams extends PDFDictionary {
         TransformParams() {
@@ -195,35 +197,35 @@ public class PDFSignature {
     }
 
     public void signPDF(URI uri, OutputStream os) throws IOException {
+        //Temporary resources can only be read once: the unsigned file is copied while the
+        //signature is computed over it, and the copy is read back to produce the output
+        byte[] signed;
+        byte[] byteRangeBytes;
+        long offsetToPDFEnd;
         try (InputStream pdfIS = getTempIS(uri)) {
-            pdfIS.mark(Integer.MAX_VALUE);
+            long pdfLength = pdfIS.available();
             String byteRangeValues = "0 1000000000 1000000000 1000000000";
             String byteRange = "\n  /ByteRange [" + byteRangeValues + "]";
-            int pdfLength = pdfIS.available();
-            long offsetToPDFEnd = startOfContents + SIZE_OF_CONTENTS + 2 + byteRange.length();
+            offsetToPDFEnd = startOfContents + SIZE_OF_CONTENTS + 2 + byteRange.length();
             long endOfPDFSize = pdfLength - offsetToPDFEnd;
             String byteRangeValues2 = String.format("0 %s %s %s", startOfContents,
                     startOfContents + SIZE_OF_CONTENTS + 2, byteRange.length() + endOfPDFSize);
             byteRange = "\n  /ByteRange [" + byteRangeValues2 + "]";
             String byteRangePadding = new String(new char[byteRangeValues.length() - byteRangeValues2.length()])
                     .replace("\0", " ");
-            try (OutputStream editedPDF = getTempOS()) {
-                IOUtils.copyLarge(pdfIS, editedPDF, 0, startOfContents);
-                editedPDF.write(byteRange.getBytes(StandardCharsets.UTF_8));
-                editedPDF.write(byteRangePadding.getBytes(StandardCharsets.UTF_8));
-                IOUtils.copyLarge(pdfIS, editedPDF, offsetToPDFEnd - startOfContents, Long.MAX_VALUE);
+            byteRangeBytes = (byteRange + byteRangePadding).getBytes(StandardCharsets.UTF_8);
+            try (OutputStream copy = getTempOS()) {
+                signed = readPKCS(new CMSProcessableByteRanges(new TeeInputStream(pdfIS, copy),
+                        startOfContents, byteRangeBytes, offsetToPDFEnd - startOfContents));
             }
-            pdfIS.reset();
+        }
+        try (InputStream pdfIS = getTempIS(tempURI)) {
             IOUtils.copyLarge(pdfIS, os, 0, startOfContents);
-            try (InputStream is = getTempIS(tempURI)) {
-                byte[] signed = readPKCS(is);
-                String signedHexPadding = new String(new char[SIZE_OF_CONTENTS - (signed.length * 2)])
-                        .replace("\0", "0");
-                String signedHex = "<" + PDFText.toHex(signed, false) + signedHexPadding + ">";
-                os.write(signedHex.getBytes(StandardCharsets.UTF_8));
-            }
-            os.write(byteRange.getBytes(StandardCharsets.UTF_8));
-            os.write(byteRangePadding.getBytes(StandardCharsets.UTF_8));
+            String signedHexPadding = new String(new char[SIZE_OF_CONTENTS - (signed.length * 2)])
+                    .replace("\0", "0");
+            String signedHex = "<" + PDFText.toHex(signed, false) + signedHexPadding + ">";
+            os.write(signedHex.getBytes(StandardCharsets.UTF_8));
+            os.write(byteRangeBytes);
             IOUtils.copyLarge(pdfIS, os, offsetToPDFEnd - startOfContents, Long.MAX_VALUE);
         }
     }
@@ -236,7 +238,7 @@ public class PDFSignature {
         return new BufferedInputStream(userAgent.getResourceResolver().getResource(uri));
     }
 
-    private byte[] readPKCS(InputStream pdf) throws IOException {
+    private byte[] readPKCS(CMSTypedData pdf) throws IOException {
         try {
             char[] password = signParams.getPassword().toCharArray();
             KeyStore keystore = KeyStore.getInstance("PKCS12");
@@ -268,7 +270,7 @@ public class PDFSignature {
         throw new IOException("Could not find certificate");
     }
 
-    private byte[] sign(InputStream content, Certificate[] certChain)
+    private byte[] sign(CMSTypedData content, Certificate[] certChain)
             throws GeneralSecurityException, OperatorException, CMSException, IOException {
         CMSSignedDataGenerator gen = new CMSSignedDataGenerator();
         X509Certificate cert = (X509Certificate) certChain[0];
@@ -276,8 +278,7 @@ public class PDFSignature {
         gen.addSignerInfoGenerator(new JcaSignerInfoGeneratorBuilder(
                 new JcaDigestCalculatorProviderBuilder().build()).build(sha2Signer, cert));
         gen.addCertificates(new JcaCertStore(Arrays.asList(certChain)));
-        CMSProcessableInputStream msg = new CMSProcessableInputStream(content);
-        CMSSignedData signedData = gen.generate(msg, false);
+        CMSSignedData signedData = gen.generate(content, false);
         return signedData.getEncoded();
     }
 }
@@ -19,14 +19,16 @@
 
 package org.apache.fop.pdf;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import org.apache.commons.io.output.NullOutputStream;
+
 /**
  * Class representing a PDF stream.
  * <p>
@@ -190,16 +192,32 @@ public class PDFStream extends AbstractPDFStream {
         final int len = super.output(stream);
 
         //Now that the data has been written, it can be discarded.
-//        this.data = null;
+        releaseData();
         return len;
     }
 
+    /**
+     * Discards the contents of this stream. A stream that was moved to a temporary file
+     * deletes the file. This is done by {@link #output(OutputStream)}; a stream that is
+     * never written has to be released by its owner.
+     * @throws IOException in case of an I/O problem
+     */
+    public void releaseData() throws IOException {
+        flush();
+        PDFDocument doc = getDocument();
+        if (doc != null) {
+            doc.releaseStreamCache(data);
+        } else {
+            data.clear();
+        }
+    }
+
     public String streamHashCode() throws IOException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        outputRawStreamData(bos);
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] thedigest = md.digest(bos.toByteArray());
+            //Digest the data while it is written instead of copying the whole stream first
+            outputRawStreamData(new DigestOutputStream(NullOutputStream.INSTANCE, md));
+            byte[] thedigest = md.digest();
             StringBuilder hex = new StringBuilder();
             for (byte b : thedigest) {
                 hex.append(String.format("%02x", b));
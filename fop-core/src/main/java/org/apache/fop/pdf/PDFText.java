@@ -22,7 +22,6 @@ package org.apache.fop.pdf;
 import java.io.ByteArrayOutputStream;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Locale;
 
 import org.apache.fop.util.CharUtilities;
 
@@ -202,17 +201,16 @@ public class PDFText extends PDFObject {
      * Convert a char to a multibyte hex representation appending to string buffer.
      * The created string will be:
      * <ul>
-     *     <li>4-character string in case of non-BMP character</li>
-     *     <li>6-character string in case of BMP character</li>
+     *     <li>4-character string in case of BMP character</li>
+     *     <li>6-character string in case of non-BMP character</li>
      * </ul>
      * @param c character to encode
      * @param sb the string buffer to append output
      */
     public static final void toUnicodeHex(int c, StringBuffer sb) {
-        if (CharUtilities.isBmpCodePoint(c)) {
-            sb.append(Integer.toHexString(c + 0x10000).substring(1).toUpperCase(Locale.US));
-        } else {
-            sb.append(Integer.toHexString(c + 0x1000000).substring(1).toUpperCase(Locale.US));
+        int shift = CharUtilities.isBmpCodePoint(c) ? 12 : 20;
+        for (; shift >= 0; shift -= 4) {
+            sb.append(DIGITS[(c >>> shift) & 0x0F]);
         }
     }
 
@@ -53,6 +53,9 @@ public abstract class PDFTextUtil {
     private boolean useMultiByte;
     private boolean useCid;
     private StringBuffer bufTJ;
+    /** reused for the other operators, write(StringBuffer) must not keep a reference to it */
+    private StringBuffer bufOp;
+    private final double[] matrix = new double[6];
     private int textRenderingMode = TR_FILL;
 
     private String currentFontName;
@@ -72,13 +75,24 @@ public abstract class PDFTextUtil {
     protected abstract void write(String code);
 
     /**
-     * Writes PDF code.
+     * Writes PDF code. The buffer is owned by this class and is cleared and reused for the
+     * next operator once the call returns, so implementations must copy or write out its
+     * contents immediately and must not keep a reference to it.
      * @param code the PDF code to write
      */
     protected abstract void write(StringBuffer code);
 
+    private StringBuffer getOperatorBuffer() {
+        if (bufOp == null) {
+            bufOp = new StringBuffer();
+        } else {
+            bufOp.setLength(0);
+        }
+        return bufOp;
+    }
+
     private void writeAffineTransform(AffineTransform at, StringBuffer sb) {
-        double[] lt = new double[6];
+        double[] lt = matrix;
         at.getMatrix(lt);
         PDFNumber.doubleOut(lt[0], DEC, sb);
         sb.append(' ');
@@ -96,7 +110,8 @@ public abstract class PDFTextUtil {
     private static void writeChar(int codePoint, StringBuffer sb, boolean multibyte, boolean cid) {
         if (!multibyte) {
             if (cid || codePoint < 32 || codePoint > 127) {
-                sb.append("\\").append(Integer.toOctalString(codePoint));
+                sb.append('\\');
+                appendOctal(codePoint, sb);
             } else {
                 switch (codePoint) {
                 case '(':
@@ -113,6 +128,17 @@ public abstract class PDFTextUtil {
         }
     }
 
+    /* Same digits as Integer.toOctalString() without creating a string for every character */
+    private static void appendOctal(int value, StringBuffer sb) {
+        int shift = 30;
+        while (shift > 0 && (value >>> shift) == 0) {
+            shift -= 3;
+        }
+        for (; shift >= 0; shift -= 3) {
+            sb.append((char) ('0' + ((value >>> shift) & 7)));
+        }
+    }
+
     private void writeChar(int codePoint, StringBuffer sb) {
         writeChar(codePoint, sb, useMultiByte, useCid);
     }
@@ -169,7 +195,7 @@ public abstract class PDFTextUtil {
     public void concatMatrix(AffineTransform at) {
         if (!at.isIdentity()) {
             writeTJ();
-            StringBuffer sb = new StringBuffer();
+            StringBuffer sb = getOperatorBuffer();
             writeAffineTransform(at, sb);
             sb.append(" cm\n");
             write(sb);
@@ -183,7 +209,7 @@ public abstract class PDFTextUtil {
      */
     public void writeTf(String fontName, double fontSize) {
         checkInTextObject();
-        StringBuffer sb = new StringBuffer();
+        StringBuffer sb = getOperatorBuffer();
         sb.append('/');
         sb.append(fontName);
         sb.append(' ');
@@ -252,7 +278,7 @@ public abstract class PDFTextUtil {
      * @param localTransform the new text transformation matrix
      */
     public void writeTextMatrix(AffineTransform localTransform) {
-        StringBuffer sb = new StringBuffer();
+        StringBuffer sb = getOperatorBuffer();
         writeAffineTransform(localTransform, sb);
         sb.append(" Tm ");
         write(sb);
@@ -336,7 +362,7 @@ public abstract class PDFTextUtil {
      * @param y coordinate
      */
     public void writeTd(double x, double y) {
-        StringBuffer sb = new StringBuffer();
+        StringBuffer sb = getOperatorBuffer();
         PDFNumber.doubleOut(x, DEC, sb);
         sb.append(' ');
         PDFNumber.doubleOut(y, DEC, sb);
@@ -349,7 +375,7 @@ public abstract class PDFTextUtil {
      * @param ch character code to write
      */
     public void writeTj(int ch, boolean multibyte, boolean cid) {
-        StringBuffer sb = new StringBuffer();
+        StringBuffer sb = getOperatorBuffer();
         sb.append(startText);
         writeChar(ch, sb, multibyte, cid);
         sb.append(endText);
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.pdf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * StreamCache implementation that keeps small streams on the heap and moves a stream to a
+ * temporary file (see {@link TempFileStreamCache}) once it grows beyond a threshold.
+ */
+public class SpillingStreamCache implements StreamCache {
+
+    private final int threshold;
+
+    private ByteArrayOutputStream memory;
+
+    private TempFileStreamCache file;
+
+    private final OutputStream output = new OutputStream() {
+
+        public void write(int b) throws IOException {
+            getTarget(1).write(b);
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            getTarget(len).write(b, off, len);
+        }
+
+        public void flush() throws IOException {
+            if (file != null) {
+                file.getOutputStream().flush();
+            }
+        }
+
+        public void close() throws IOException {
+            //The temporary file is closed when its contents are read
+            flush();
+        }
+    };
+
+    /**
+     * Creates a new SpillingStreamCache.
+     * @param threshold the size (in bytes) above which the stream is moved to a temporary file
+     * @param hintSize a hint about the approximate expected size of the buffer
+     */
+    SpillingStreamCache(int threshold, int hintSize) {
+        this.threshold = threshold;
+        this.memory = new ByteArrayOutputStream(hintSize > 0 ? Math.min(hintSize, threshold) : 512);
+    }
+
+    private OutputStream getTarget(int len) throws IOException {
+        if (file == null && memory.size() + len > threshold) {
+            file = new TempFileStreamCache();
+            memory.writeTo(file.getOutputStream());
+            memory = null;
+        }
+        if (file != null) {
+            return file.getOutputStream();
+        }
+        return memory;
+    }
+
+    /**
+     * Indicates whether the stream has been moved to a temporary file.
+     * @return true if the data is held in a temporary file
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Get the current OutputStream. The same stream is returned on every call.
+     * @return the output stream for this cache
+     */
+    public OutputStream getOutputStream() {
+        return output;
+    }
+
+    /** {@inheritDoc} */
+    public void write(byte[] data) throws IOException {
+        output.write(data, 0, data.length);
+    }
+
+    /** {@inheritDoc} */
+    public int outputContents(OutputStream out) throws IOException {
+        if (file != null) {
+            return file.outputContents(out);
+        }
+        memory.writeTo(out);
+        return memory.size();
+    }
+
+    /** {@inheritDoc} */
+    public int getSize() throws IOException {
+        return file != null ? file.getSize() : memory.size();
+    }
+
+    /** {@inheritDoc} */
+    public void clear() throws IOException {
+        if (file != null) {
+            file.clear();
+            file = null;
+        }
+        memory = new ByteArrayOutputStream(512);
+    }
+}
@@ -22,11 +22,22 @@ package org.apache.fop.pdf;
 import java.io.IOException;
 
 /**
- * This class is serves as a factory from
+ * This class serves as a factory for {@link StreamCache} instances.
+ * <p>
+ * By default all streams are cached in memory. If the system property
+ * {@link #SPILL_THRESHOLD_PROPERTY} is set (or {@link #setDefaultSpillThreshold(int)} is
+ * called), streams larger than the given number of bytes are moved to temporary files.
+ * Each {@link PDFDocument} reports how many bytes its streams buffered and spilled.
  */
 public final class StreamCacheFactory {
 
-    private static StreamCacheFactory memoryInstance = new StreamCacheFactory();
+    /** System property holding the stream size (in bytes) above which streams go to temporary files. */
+    public static final String SPILL_THRESHOLD_PROPERTY = "org.apache.fop.pdf.stream-cache.spill-threshold";
+
+    private static volatile StreamCacheFactory memoryInstance = new StreamCacheFactory(
+            Integer.getInteger(SPILL_THRESHOLD_PROPERTY, -1));
+
+    private final int spillThreshold;
 
     /**
      * Returns an instance of a StreamCacheFactory with the requested features.
@@ -36,31 +47,52 @@ public final class StreamCacheFactory {
         return memoryInstance;
     }
 
+    /**
+     * Sets the stream size above which the default factory moves streams to temporary files.
+     * @param spillThreshold the threshold in bytes, 0 or less to keep all streams in memory
+     */
+    public static void setDefaultSpillThreshold(int spillThreshold) {
+        memoryInstance = new StreamCacheFactory(spillThreshold);
+    }
+
     /**
      * Creates a new StreamCacheFactory.
-     * @param cacheToFile True if file shall be cached using a temporary file
+     * @param spillThreshold the size above which streams are moved to temporary files,
+     * 0 or less to keep all streams in memory
      */
-    private StreamCacheFactory() {
+    private StreamCacheFactory(int spillThreshold) {
+        this.spillThreshold = spillThreshold;
     }
 
     /**
-     * Get the correct implementation (based on cacheToFile) of
+     * Get the correct implementation (based on the spill threshold) of
      * StreamCache.
      * @throws IOException if there is an IO error
      * @return a new StreamCache for caching streams
      */
     public StreamCache createStreamCache() throws IOException {
-        return new InMemoryStreamCache();
+        return createStreamCache(-1);
     }
 
     /**
-     * Get the correct implementation (based on cacheToFile) of
+     * Get the correct implementation (based on the spill threshold) of
      * StreamCache.
      * @param hintSize a hint about the approximate expected size of the buffer
      * @throws IOException if there is an IO error
      * @return a new StreamCache for caching streams
      */
     public StreamCache createStreamCache(int hintSize) throws IOException {
+        if (spillThreshold > 0) {
+            return new SpillingStreamCache(spillThreshold, hintSize);
+        }
         return new InMemoryStreamCache(hintSize);
     }
+
+    /**
+     * Returns the stream size above which streams are moved to temporary files.
+     * @return the threshold in bytes, 0 or less if all streams are kept in memory
+     */
+    public int getSpillThreshold() {
+        return spillThreshold;
+    }
 }
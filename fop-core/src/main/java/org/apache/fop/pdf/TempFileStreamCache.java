@@ -27,7 +27,8 @@ import java.io.OutputStream;
 import org.apache.commons.io.IOUtils;
 
 /**
- * StreamCache implementation that uses temporary files rather than heap.
+ * StreamCache implementation that uses temporary files rather than heap. The file is
+ * deleted by {@link #clear()}, so the cache must be cleared once it is no longer needed.
  */
 public class TempFileStreamCache implements StreamCache {
 
@@ -49,7 +50,6 @@ public class TempFileStreamCache implements StreamCache {
     public TempFileStreamCache() throws IOException {
         tempFile = File.createTempFile("org.apache.fop.pdf.StreamCache-",
                                        ".temp");
-        tempFile.deleteOnExit();
     }
 
     /**
@@ -61,8 +61,9 @@ public class TempFileStreamCache implements StreamCache {
      */
     public OutputStream getOutputStream() throws IOException {
         if (output == null) {
+            //Append, the contents may have been read (and the stream closed) before
             output = new java.io.BufferedOutputStream(
-                       new java.io.FileOutputStream(tempFile));
+                       new java.io.FileOutputStream(tempFile, true));
         }
         return output;
     }
@@ -75,20 +76,22 @@ public class TempFileStreamCache implements StreamCache {
     }
 
     /**
-     * Outputs the cached bytes to the given stream.
+     * Outputs the cached bytes to the given stream. The contents are kept, so they can be
+     * output more than once.
      *
      * @param out the output stream to write to
      * @return the number of bytes written
      * @throws IOException if there is an IO error
      */
     public int outputContents(OutputStream out) throws IOException {
-        if (output == null) {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+        if (!tempFile.exists()) {
             return 0;
         }
 
-        output.close();
-        output = null;
-
         // don't need a buffer because copy() is buffered
         InputStream input = new java.io.FileInputStream(tempFile);
         try {
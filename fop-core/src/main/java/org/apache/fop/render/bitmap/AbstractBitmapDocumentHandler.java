@@ -27,6 +27,14 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
@@ -77,6 +85,12 @@ public abstract class AbstractBitmapDocumentHandler extends AbstractBinaryWritin
     private double scaleFactor = 1.0;
     private Dimension targetBitmapSize;
 
+    /** Encodes the finished pages while the next one is painted (only if enabled) */
+    private ExecutorService encodingExecutor;
+    private Future<?> pendingEncoding;
+    /** The bitmap handed to the encoder, painted on again once it has been written */
+    private BufferedImage encodingImage;
+
     /**
      * Default constructor.
      */
@@ -153,6 +167,20 @@ public abstract class AbstractBitmapDocumentHandler extends AbstractBinaryWritin
                         getUserAgent().getOutputFile());
             }
             this.pageCount = 0;
+            if (getSettings().isBackgroundEncodingEnabled()) {
+                //The thread ends when idle, so it does not linger if rendering is aborted
+                //before endDocument()
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            public Thread newThread(Runnable r) {
+                                Thread t = new Thread(r, "FOP bitmap encoder");
+                                t.setDaemon(true);
+                                return t;
+                            }
+                        });
+                executor.allowCoreThreadTimeOut(true);
+                this.encodingExecutor = executor;
+            }
         } catch (IOException e) {
             throw new IFException("I/O error in startDocument()", e);
         }
@@ -165,6 +193,15 @@ public abstract class AbstractBitmapDocumentHandler extends AbstractBinaryWritin
     /** {@inheritDoc} */
     public void endDocument() throws IFException {
         try {
+            try {
+                waitForPendingEncoding();
+            } finally {
+                if (this.encodingExecutor != null) {
+                    this.encodingExecutor.shutdown();
+                    this.encodingExecutor = null;
+                    this.encodingImage = null;
+                }
+            }
             if (this.multiImageWriter != null) {
                 this.multiImageWriter.close();
             }
@@ -288,39 +325,81 @@ public abstract class AbstractBitmapDocumentHandler extends AbstractBinaryWritin
 
     /** {@inheritDoc} */
     public void endPageContent() throws IFException {
+        if (this.encodingExecutor == null) {
+            try {
+                writePage(this.currentImage, this.pageCount);
+            } catch (IOException ioe) {
+                throw new IFException("I/O error while encoding BufferedImage", ioe);
+            }
+        } else {
+            //Only one page is encoded at a time so the pages are written in order and
+            //at most two page bitmaps are held in memory
+            waitForPendingEncoding();
+            final BufferedImage image = this.currentImage;
+            final int pageNumber = this.pageCount;
+            //The two bitmaps take turns: the next page is painted on the one that was just
+            //written while this one is being encoded
+            this.currentImage = this.encodingImage;
+            this.encodingImage = image;
+            this.pendingEncoding = encodingExecutor.submit(new Callable<Void>() {
+                public Void call() throws IOException {
+                    writePage(image, pageNumber);
+                    return null;
+                }
+            });
+        }
+    }
+
+    private void waitForPendingEncoding() throws IFException {
+        if (this.pendingEncoding == null) {
+            return;
+        }
         try {
-            if (this.multiImageWriter == null) {
-                switch (this.pageCount) {
-                case 1:
-                    this.imageWriter.writeImage(
-                            this.currentImage, this.outputStream,
-                            getSettings().getWriterParams());
-                    IOUtils.closeQuietly(this.outputStream);
-                    this.outputStream = null;
-                    break;
-                default:
-                    OutputStream out = this.multiFileUtil.createOutputStream(this.pageCount - 1);
-                    if (out == null) {
-                        BitmapRendererEventProducer eventProducer
-                            = BitmapRendererEventProducer.Provider.get(
-                                    getUserAgent().getEventBroadcaster());
-                        eventProducer.stoppingAfterFirstPageNoFilename(this);
-                    } else {
-                        try {
-                            this.imageWriter.writeImage(
-                                    this.currentImage, out,
-                                    getSettings().getWriterParams());
-                        } finally {
-                            IOUtils.closeQuietly(out);
-                        }
+            this.pendingEncoding.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IFException("Interrupted while encoding BufferedImage", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IFException("I/O error while encoding BufferedImage", (Exception) cause);
+        } finally {
+            this.pendingEncoding = null;
+        }
+    }
+
+    private void writePage(BufferedImage image, int pageNumber) throws IOException {
+        if (this.multiImageWriter == null) {
+            switch (pageNumber) {
+            case 1:
+                this.imageWriter.writeImage(
+                        image, this.outputStream,
+                        getSettings().getWriterParams());
+                IOUtils.closeQuietly(this.outputStream);
+                this.outputStream = null;
+                break;
+            default:
+                OutputStream out = this.multiFileUtil.createOutputStream(pageNumber - 1);
+                if (out == null) {
+                    BitmapRendererEventProducer eventProducer
+                        = BitmapRendererEventProducer.Provider.get(
+                                getUserAgent().getEventBroadcaster());
+                    eventProducer.stoppingAfterFirstPageNoFilename(this);
+                } else {
+                    try {
+                        this.imageWriter.writeImage(
+                                image, out,
+                                getSettings().getWriterParams());
+                    } finally {
+                        IOUtils.closeQuietly(out);
                     }
                 }
-            } else {
-                this.multiImageWriter.writeImage(this.currentImage,
-                        getSettings().getWriterParams());
             }
-        } catch (IOException ioe) {
-            throw new IFException("I/O error while encoding BufferedImage", ioe);
+        } else {
+            this.multiImageWriter.writeImage(image,
+                    getSettings().getWriterParams());
         }
     }
 
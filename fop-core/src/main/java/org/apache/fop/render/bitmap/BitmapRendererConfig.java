@@ -36,6 +36,7 @@ import org.apache.fop.util.ColorUtil;
 
 import static org.apache.fop.render.bitmap.BitmapRendererOption.ANTI_ALIASING;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.BACKGROUND_COLOR;
+import static org.apache.fop.render.bitmap.BitmapRendererOption.BACKGROUND_ENCODING;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.COLOR_MODE;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.JAVA2D_TRANSPARENT_PAGE_BACKGROUND;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.RENDERING_QUALITY;
@@ -76,6 +77,10 @@ public class BitmapRendererConfig implements RendererConfig {
         return (Integer) get(COLOR_MODE);
     }
 
+    public Boolean isBackgroundEncodingEnabled() {
+        return (Boolean) get(BACKGROUND_ENCODING);
+    }
+
     public boolean hasTransparentBackround() {
         Object result = get(JAVA2D_TRANSPARENT_PAGE_BACKGROUND);
         return (Boolean) (result != null ? result
@@ -133,6 +138,10 @@ public class BitmapRendererConfig implements RendererConfig {
                 String color = getValue(cfg, COLOR_MODE);
                 setParam(config, COLOR_MODE,
                         getBufferedImageIntegerFromColor(BitmapRendererOption.getValue(color)));
+
+                setParam(config, BACKGROUND_ENCODING,
+                        getChild(cfg, BACKGROUND_ENCODING).getValueAsBoolean(
+                                (Boolean) BACKGROUND_ENCODING.getDefaultValue()));
             }
         }
 
@@ -24,6 +24,7 @@ import org.apache.xmlgraphics.image.writer.ImageWriterParams;
 import org.apache.fop.render.java2d.Java2DRenderingSettings;
 
 import static org.apache.fop.render.bitmap.BitmapRendererOption.ANTI_ALIASING;
+import static org.apache.fop.render.bitmap.BitmapRendererOption.BACKGROUND_ENCODING;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.COLOR_MODE;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.RENDERING_QUALITY;
 
@@ -44,6 +45,9 @@ public class BitmapRenderingSettings extends Java2DRenderingSettings {
     /** true if qualityRendering is set */
     private boolean qualityRendering = (Boolean) RENDERING_QUALITY.getDefaultValue();
 
+    /** true if pages are encoded on a background thread */
+    private boolean backgroundEncoding = (Boolean) BACKGROUND_ENCODING.getDefaultValue();
+
     /**
      * Default constructor. Initializes the settings to their default values.
      */
@@ -107,6 +111,23 @@ public class BitmapRenderingSettings extends Java2DRenderingSettings {
         return this.qualityRendering;
     }
 
+    /**
+     * Controls whether the finished pages are encoded on a background thread while the next
+     * page is being painted. This uses more memory as two page bitmaps are held at a time.
+     * @param backgroundEncoding true to encode the pages on a background thread
+     */
+    public void setBackgroundEncoding(boolean backgroundEncoding) {
+        this.backgroundEncoding = backgroundEncoding;
+    }
+
+    /**
+     * Indicates whether the pages are encoded on a background thread.
+     * @return true if the pages are encoded on a background thread
+     */
+    public boolean isBackgroundEncodingEnabled() {
+        return this.backgroundEncoding;
+    }
+
     /**
      * Sets the compression method for the image writer.
      * @param compressionMethod the compression method name
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.render.intermediate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encoding routines shared by {@link BinaryIFWriter} and
+ * {@link BinaryIFParser}.
+ * <p>
+ * A binary IF stream starts with {@link #MAGIC} and a version byte, followed by records.
+ * Each record starts with a tag byte. Element, attribute and namespace names as well as short
+ * attribute values are interned: the first occurrence is written out and assigned the next
+ * index, later occurrences are written as that index. Integers are written as variable-length
+ * quantities (7 bits per byte), signed ones in zig-zag encoding. Every <code>page</code>
+ * element is wrapped in a {@link #PAGE} record with a length prefix so readers can skip it.
+ * Strings first seen inside a page are defined by {@link #DEFINE_STRING} records placed
+ * right before the page, so the string table stays intact when a page is skipped.
+ */
+final class BinaryIFFormat {
+
+    /** Identifies a binary IF stream. */
+    static final byte[] MAGIC = {'F', 'O', 'P', 'I', 'F', 'B'};
+
+    /** The version of the format. */
+    static final int VERSION = 1;
+
+    /** Record: end of the document */
+    static final int END_DOCUMENT = 0;
+    /** Record: startPrefixMapping(prefix, uri) */
+    static final int START_PREFIX_MAPPING = 1;
+    /** Record: endPrefixMapping(prefix) */
+    static final int END_PREFIX_MAPPING = 2;
+    /** Record: startElement(uri, localName, qName, attributes) */
+    static final int START_ELEMENT = 3;
+    /** Record: endElement() for the innermost open element */
+    static final int END_ELEMENT = 4;
+    /** Record: characters(text) */
+    static final int CHARACTERS = 5;
+    /** Record: ignorableWhitespace(text) */
+    static final int IGNORABLE_WHITESPACE = 6;
+    /** Record: processingInstruction(target, data) */
+    static final int PROCESSING_INSTRUCTION = 7;
+    /** Record: length-prefixed page, containing the records of one page element */
+    static final int PAGE = 8;
+    /** Record: adds a string to the string table */
+    static final int DEFINE_STRING = 9;
+
+    /** Attribute value: interned string */
+    static final int VALUE_STRING = 0;
+    /** Attribute value: a single integer */
+    static final int VALUE_INT = 1;
+    /** Attribute value: a list of integers separated by single spaces */
+    static final int VALUE_INT_LIST = 2;
+    /** Attribute value: a string which is not interned */
+    static final int VALUE_LITERAL = 3;
+
+    /** Attribute values longer than this are not interned. */
+    static final int MAX_INTERNED_LENGTH = 64;
+
+    private BinaryIFFormat() {
+    }
+
+    static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of binary IF stream");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer in binary IF stream");
+    }
+
+    static void writeSignedVarInt(OutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    static int readSignedVarInt(InputStream in) throws IOException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeLiteral(OutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readLiteral(InputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        readFully(in, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void readFully(InputStream in, byte[] b) throws IOException {
+        int off = 0;
+        while (off < b.length) {
+            int n = in.read(b, off, b.length - off);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of binary IF stream");
+            }
+            off += n;
+        }
+    }
+
+    /**
+     * Parses a string if it is the canonical decimal representation of an int, i.e. if
+     * {@link Integer#toString(int)} gives back exactly the same string.
+     * @param s the string
+     * @param start the start index
+     * @param end the end index (exclusive)
+     * @return the value or null if the string is not a canonical int
+     */
+    static Integer parseCanonicalInt(String s, int start, int end) {
+        int len = end - start;
+        if (len == 0 || len > 11) {
+            return null;
+        }
+        boolean negative = s.charAt(start) == '-';
+        int digitStart = negative ? start + 1 : start;
+        if (digitStart == end
+                || (s.charAt(digitStart) == '0' && (end - digitStart > 1 || negative))) {
+            return null;
+        }
+        long value = 0;
+        for (int i = digitStart; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return null;
+        }
+        return (int) value;
+    }
+}
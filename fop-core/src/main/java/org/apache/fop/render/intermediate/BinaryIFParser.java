@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.render.intermediate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import org.apache.fop.apps.FOUserAgent;
+
+/**
+ * Reads the binary intermediate format written by {@link BinaryIFWriter} and replays it as
+ * SAX events. The events are the same as those of the original IF XML, so they can be fed
+ * to {@link IFParser} (see {@link #parse(InputStream, IFDocumentHandler, FOUserAgent)}) or
+ * to any other SAX consumer, for example to get the IF back as XML.
+ * <p>
+ * Pages can be skipped without decoding them (see {@link #setPageRange(int, int)}).
+ */
+public class BinaryIFParser {
+
+    private int firstPage;
+    private int lastPage = Integer.MAX_VALUE;
+
+    /**
+     * Restricts the pages which are replayed. Pages outside the range are skipped without
+     * being decoded.
+     * @param first the zero-based index of the first page to replay
+     * @param last the zero-based index of the last page to replay (inclusive)
+     */
+    public void setPageRange(int first, int last) {
+        if (first < 0 || last < first) {
+            throw new IllegalArgumentException("Invalid page range: " + first + "-" + last);
+        }
+        this.firstPage = first;
+        this.lastPage = last;
+    }
+
+    /**
+     * Parses a binary intermediate file and paints it.
+     * @param in the InputStream to read the binary IF from
+     * @param documentHandler the intermediate format document handler used to process the IF events
+     * @param userAgent the user agent
+     * @throws IOException if an I/O error occurs or the stream is not valid binary IF
+     * @throws IFException if an IF-related error occurs inside the target document handler
+     */
+    public void parse(InputStream in, IFDocumentHandler documentHandler, FOUserAgent userAgent)
+                throws IOException, IFException {
+        ContentHandler handler = new IFParser().getContentHandler(documentHandler, userAgent);
+        try {
+            parse(in, handler);
+        } catch (SAXException se) {
+            //Unpack original IFException if applicable
+            if (se.getCause() instanceof IFException) {
+                throw (IFException) se.getCause();
+            }
+            throw new IFException("Error while processing binary IF", se);
+        }
+    }
+
+    /**
+     * Reads a binary intermediate file and sends its content as SAX events to the given handler.
+     * @param in the InputStream to read the binary IF from
+     * @param handler the ContentHandler to receive the SAX events
+     * @throws IOException if an I/O error occurs or the stream is not valid binary IF
+     * @throws SAXException if the ContentHandler reports an error
+     */
+    public void parse(InputStream in, ContentHandler handler) throws IOException, SAXException {
+        byte[] magic = new byte[BinaryIFFormat.MAGIC.length];
+        BinaryIFFormat.readFully(in, magic);
+        if (!Arrays.equals(magic, BinaryIFFormat.MAGIC)) {
+            throw new IOException("Not a binary intermediate format stream");
+        }
+        int version = in.read();
+        if (version != BinaryIFFormat.VERSION) {
+            throw new IOException("Unsupported binary intermediate format version: " + version);
+        }
+        new Reader(handler).read(in, true);
+    }
+
+    private class Reader {
+
+        private final ContentHandler handler;
+        private final List<String> strings = new java.util.ArrayList<String>();
+        private final List<String[]> openElements = new java.util.ArrayList<String[]>();
+        private final AttributesImpl atts = new AttributesImpl();
+        private int pageIndex;
+
+        Reader(ContentHandler handler) {
+            this.handler = handler;
+        }
+
+        void read(InputStream in, boolean document) throws IOException, SAXException {
+            if (document) {
+                handler.startDocument();
+            }
+            while (true) {
+                int tag = in.read();
+                switch (tag) {
+                case BinaryIFFormat.END_DOCUMENT:
+                    handler.endDocument();
+                    return;
+                case -1:
+                    if (document) {
+                        throw new IOException("Unexpected end of binary IF stream");
+                    }
+                    return;
+                case BinaryIFFormat.START_PREFIX_MAPPING:
+                    String prefix = readString(in);
+                    handler.startPrefixMapping(prefix, readString(in));
+                    break;
+                case BinaryIFFormat.END_PREFIX_MAPPING:
+                    handler.endPrefixMapping(readString(in));
+                    break;
+                case BinaryIFFormat.START_ELEMENT:
+                    readStartElement(in);
+                    break;
+                case BinaryIFFormat.END_ELEMENT:
+                    if (openElements.isEmpty()) {
+                        throw new IOException("Unbalanced end of element in binary IF stream");
+                    }
+                    String[] name = openElements.remove(openElements.size() - 1);
+                    handler.endElement(name[0], name[1], name[2]);
+                    break;
+                case BinaryIFFormat.CHARACTERS:
+                    char[] ch = BinaryIFFormat.readLiteral(in).toCharArray();
+                    handler.characters(ch, 0, ch.length);
+                    break;
+                case BinaryIFFormat.IGNORABLE_WHITESPACE:
+                    char[] ws = BinaryIFFormat.readLiteral(in).toCharArray();
+                    handler.ignorableWhitespace(ws, 0, ws.length);
+                    break;
+                case BinaryIFFormat.PROCESSING_INSTRUCTION:
+                    String target = readString(in);
+                    handler.processingInstruction(target, BinaryIFFormat.readLiteral(in));
+                    break;
+                case BinaryIFFormat.PAGE:
+                    readPage(in);
+                    break;
+                case BinaryIFFormat.DEFINE_STRING:
+                    strings.add(BinaryIFFormat.readLiteral(in));
+                    break;
+                default:
+                    throw new IOException("Invalid record in binary IF stream: " + tag);
+                }
+            }
+        }
+
+        private void readPage(InputStream in) throws IOException, SAXException {
+            int length = BinaryIFFormat.readVarInt(in);
+            int index = pageIndex++;
+            if (index < firstPage || index > lastPage) {
+                long remaining = length;
+                while (remaining > 0) {
+                    long skipped = in.skip(remaining);
+                    if (skipped <= 0) {
+                        if (in.read() < 0) {
+                            throw new IOException("Unexpected end of binary IF stream");
+                        }
+                        skipped = 1;
+                    }
+                    remaining -= skipped;
+                }
+            } else {
+                byte[] page = new byte[length];
+                BinaryIFFormat.readFully(in, page);
+                read(new ByteArrayInputStream(page), false);
+            }
+        }
+
+        private void readStartElement(InputStream in) throws IOException, SAXException {
+            String uri = readString(in);
+            String localName = readString(in);
+            String qName = readString(in);
+            atts.clear();
+            int count = BinaryIFFormat.readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                String attUri = readString(in);
+                String attLocalName = readString(in);
+                String attQName = readString(in);
+                String type = readString(in);
+                atts.addAttribute(attUri, attLocalName, attQName, type, readValue(in));
+            }
+            openElements.add(new String[] {uri, localName, qName});
+            handler.startElement(uri, localName, qName, atts);
+        }
+
+        private String readString(InputStream in) throws IOException {
+            int index = BinaryIFFormat.readVarInt(in);
+            if (index == 0) {
+                String s = BinaryIFFormat.readLiteral(in);
+                strings.add(s);
+                return s;
+            } else if (index > strings.size()) {
+                throw new IOException("Invalid string reference in binary IF stream: " + index);
+            }
+            return strings.get(index - 1);
+        }
+
+        private String readValue(InputStream in) throws IOException {
+            int type = in.read();
+            switch (type) {
+            case BinaryIFFormat.VALUE_STRING:
+                return readString(in);
+            case BinaryIFFormat.VALUE_INT:
+                return Integer.toString(BinaryIFFormat.readSignedVarInt(in));
+            case BinaryIFFormat.VALUE_INT_LIST:
+                int count = BinaryIFFormat.readVarInt(in);
+                StringBuilder sb = new StringBuilder(count * 4);
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        sb.append(' ');
+                    }
+                    sb.append(BinaryIFFormat.readSignedVarInt(in));
+                }
+                return sb.toString();
+            case BinaryIFFormat.VALUE_LITERAL:
+                return BinaryIFFormat.readLiteral(in);
+            default:
+                throw new IOException("Invalid attribute value type in binary IF stream: " + type);
+            }
+        }
+    }
+}
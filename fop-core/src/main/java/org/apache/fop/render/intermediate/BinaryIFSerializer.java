@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.render.intermediate;
+
+import java.io.OutputStream;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.stream.StreamResult;
+
+import org.xml.sax.ContentHandler;
+
+import org.apache.fop.apps.MimeConstants;
+
+/**
+ * IFPainter implementation that serializes the intermediate format in the compact binary
+ * encoding of {@link BinaryIFWriter} instead of XML. Use {@link BinaryIFParser} to read it back.
+ */
+public class BinaryIFSerializer extends IFSerializer {
+
+    /**
+     * Main constructor
+     * @param context the intermediate format context
+     */
+    public BinaryIFSerializer(IFContext context) {
+        super(context);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getMimeType() {
+        return MimeConstants.MIME_FOP_IF_BINARY;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected ContentHandler createContentHandler(Result result) throws IFException {
+        if (result instanceof StreamResult) {
+            OutputStream out = ((StreamResult) result).getOutputStream();
+            if (out != null) {
+                return new BinaryIFWriter(out);
+            }
+        }
+        throw new IFException("The binary intermediate format requires a StreamResult"
+                + " with an OutputStream");
+    }
+}
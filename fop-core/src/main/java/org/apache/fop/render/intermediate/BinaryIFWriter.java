@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.render.intermediate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX ContentHandler which writes the intermediate format in the compact binary encoding
+ * described in {@link BinaryIFFormat}. The encoding is lossless with respect to the SAX
+ * events received, so {@link BinaryIFParser} can reproduce the same IF XML.
+ * <p>
+ * The OutputStream is flushed but not closed at the end of the document.
+ */
+public class BinaryIFWriter extends DefaultHandler {
+
+    private final OutputStream target;
+
+    /** Current destination of records: the target or the buffer of the current page. */
+    private OutputStream out;
+
+    private final ByteArrayOutputStream pageBuffer = new ByteArrayOutputStream();
+
+    /** Element depth inside the current page, 0 outside of pages. */
+    private int pageDepth;
+
+    private final Map<String, Integer> strings = new java.util.HashMap<String, Integer>();
+
+    /** Strings first used inside the current page, to be defined before the page record. */
+    private final List<String> pageStrings = new java.util.ArrayList<String>();
+
+    /**
+     * Creates a new writer.
+     * @param out the OutputStream to write the binary IF to
+     */
+    public BinaryIFWriter(OutputStream out) {
+        this.target = out;
+        this.out = out;
+    }
+
+    /** {@inheritDoc} */
+    public void startDocument() throws SAXException {
+        try {
+            target.write(BinaryIFFormat.MAGIC);
+            target.write(BinaryIFFormat.VERSION);
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void endDocument() throws SAXException {
+        try {
+            target.write(BinaryIFFormat.END_DOCUMENT);
+            target.flush();
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void startPrefixMapping(String prefix, String uri) throws SAXException {
+        try {
+            out.write(BinaryIFFormat.START_PREFIX_MAPPING);
+            writeString(prefix);
+            writeString(uri);
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void endPrefixMapping(String prefix) throws SAXException {
+        try {
+            out.write(BinaryIFFormat.END_PREFIX_MAPPING);
+            writeString(prefix);
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void startElement(String uri, String localName, String qName, Attributes atts)
+                throws SAXException {
+        if (pageDepth > 0) {
+            pageDepth++;
+        } else if (IFConstants.NAMESPACE.equals(uri) && IFConstants.EL_PAGE.equals(localName)) {
+            pageBuffer.reset();
+            out = pageBuffer;
+            pageDepth = 1;
+        }
+        try {
+            out.write(BinaryIFFormat.START_ELEMENT);
+            writeString(uri);
+            writeString(localName);
+            writeString(qName);
+            int count = atts.getLength();
+            BinaryIFFormat.writeVarInt(out, count);
+            for (int i = 0; i < count; i++) {
+                writeString(atts.getURI(i));
+                writeString(atts.getLocalName(i));
+                writeString(atts.getQName(i));
+                writeString(atts.getType(i));
+                writeValue(atts.getValue(i));
+            }
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        try {
+            out.write(BinaryIFFormat.END_ELEMENT);
+            if (pageDepth > 0) {
+                pageDepth--;
+                if (pageDepth == 0) {
+                    endPage();
+                }
+            }
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    private void endPage() throws IOException {
+        out = target;
+        for (String s : pageStrings) {
+            out.write(BinaryIFFormat.DEFINE_STRING);
+            BinaryIFFormat.writeLiteral(out, s);
+        }
+        pageStrings.clear();
+        out.write(BinaryIFFormat.PAGE);
+        BinaryIFFormat.writeVarInt(out, pageBuffer.size());
+        pageBuffer.writeTo(out);
+    }
+
+    /** {@inheritDoc} */
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        try {
+            out.write(BinaryIFFormat.CHARACTERS);
+            BinaryIFFormat.writeLiteral(out, new String(ch, start, length));
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        try {
+            out.write(BinaryIFFormat.IGNORABLE_WHITESPACE);
+            BinaryIFFormat.writeLiteral(out, new String(ch, start, length));
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void processingInstruction(String target, String data) throws SAXException {
+        try {
+            out.write(BinaryIFFormat.PROCESSING_INSTRUCTION);
+            writeString(target);
+            BinaryIFFormat.writeLiteral(out, data != null ? data : "");
+        } catch (IOException ioe) {
+            throw new SAXException(ioe);
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            s = "";
+        }
+        Integer index = strings.get(s);
+        if (index != null) {
+            BinaryIFFormat.writeVarInt(out, index + 1);
+        } else if (pageDepth > 0) {
+            //Refer to the index which the definition before the page record will get
+            BinaryIFFormat.writeVarInt(out, strings.size() + 1);
+            strings.put(s, strings.size());
+            pageStrings.add(s);
+        } else {
+            out.write(0);
+            BinaryIFFormat.writeLiteral(out, s);
+            strings.put(s, strings.size());
+        }
+    }
+
+    private void writeValue(String value) throws IOException {
+        Integer number = BinaryIFFormat.parseCanonicalInt(value, 0, value.length());
+        if (number != null) {
+            out.write(BinaryIFFormat.VALUE_INT);
+            BinaryIFFormat.writeSignedVarInt(out, number);
+        } else if (!writeIntList(value)) {
+            if (value.length() <= BinaryIFFormat.MAX_INTERNED_LENGTH) {
+                out.write(BinaryIFFormat.VALUE_STRING);
+                writeString(value);
+            } else {
+                out.write(BinaryIFFormat.VALUE_LITERAL);
+                BinaryIFFormat.writeLiteral(out, value);
+            }
+        }
+    }
+
+    private boolean writeIntList(String value) throws IOException {
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == ' ') {
+                count++;
+            }
+        }
+        if (count == 1) {
+            return false;
+        }
+        int[] numbers = new int[count];
+        int start = 0;
+        for (int n = 0; n < count; n++) {
+            int end = value.indexOf(' ', start);
+            if (end < 0) {
+                end = value.length();
+            }
+            Integer number = BinaryIFFormat.parseCanonicalInt(value, start, end);
+            if (number == null) {
+                return false;
+            }
+            numbers[n] = number;
+            start = end + 1;
+        }
+        out.write(BinaryIFFormat.VALUE_INT_LIST);
+        BinaryIFFormat.writeVarInt(out, count);
+        for (int number : numbers) {
+            BinaryIFFormat.writeSignedVarInt(out, number);
+        }
+        return true;
+    }
+}
@@ -350,6 +350,9 @@ public class PDFDocumentHandler extends AbstractBinaryWritingIFDocumentHandler {
             pdfDoc.registerObject(stream);
             PDFReference ref = new PDFReference(stream);
             contents.put(hash, ref);
+        } else {
+            //The page reuses an identical stream, this one is never written
+            stream.releaseData();
         }
         currentPage.setContents(contents.get(hash));
     }
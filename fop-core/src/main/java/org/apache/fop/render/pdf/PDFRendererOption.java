@@ -105,6 +105,17 @@ public enum PDFRendererOption implements RendererConfigOption {
             return Boolean.valueOf(value);
         }
     },
+    /**
+     * Rendering Options key for sharing one XObject between images with identical content.
+     * The data of every image is produced and hashed when the image is added, and kept until
+     * it is written.
+     */
+    IMAGE_DEDUPLICATION("deduplicate-images", false) {
+        @Override
+        Boolean deserialize(String value) {
+            return Boolean.valueOf(value);
+        }
+    },
     OBJECT_STREAMS("use-object-streams", false) {
         @Override
         Boolean deserialize(String value) {
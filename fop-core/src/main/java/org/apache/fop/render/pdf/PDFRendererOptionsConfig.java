@@ -35,6 +35,7 @@ import org.apache.fop.pdf.Version;
 import static org.apache.fop.render.pdf.PDFRendererOption.DISABLE_SRGB_COLORSPACE;
 import static org.apache.fop.render.pdf.PDFRendererOption.FILTER_LIST;
 import static org.apache.fop.render.pdf.PDFRendererOption.FORM_XOBJECT;
+import static org.apache.fop.render.pdf.PDFRendererOption.IMAGE_DEDUPLICATION;
 import static org.apache.fop.render.pdf.PDFRendererOption.LINEARIZATION;
 import static org.apache.fop.render.pdf.PDFRendererOption.MERGE_FONTS;
 import static org.apache.fop.render.pdf.PDFRendererOption.MERGE_FORM_FIELDS;
@@ -162,4 +163,8 @@ public final class PDFRendererOptionsConfig {
     public Boolean getObjectStreamsEnabled() {
         return (Boolean)properties.get(OBJECT_STREAMS);
     }
+
+    public Boolean getImageDeduplicationEnabled() {
+        return (Boolean)properties.get(IMAGE_DEDUPLICATION);
+    }
 }
@@ -605,6 +605,9 @@ class PDFRenderingUtil {
             this.pdfDoc = new PDFDocument(producer, controller);
         }
         pdfDoc.getFactory().setEventBroadcaster(userAgent.getEventBroadcaster());
+        if (userAgent.getFontManager() != null) {
+            pdfDoc.setFontSubsetCache(userAgent.getFontManager().getFontSubsetCache());
+        }
         updateInfo();
         updatePDFProfiles();
         pdfDoc.setFilterMap(rendererConfig.getFilterMap());
@@ -637,6 +640,7 @@ class PDFRenderingUtil {
         pdfDoc.setLinearizationEnabled(rendererConfig.getLinearizationEnabled());
         pdfDoc.setFormXObjectEnabled(rendererConfig.getFormXObjectEnabled());
         pdfDoc.setObjectStreamsEnabled(rendererConfig.getObjectStreamsEnabled());
+        pdfDoc.setImageDeduplicationEnabled(rendererConfig.getImageDeduplicationEnabled());
 
         return this.pdfDoc;
     }
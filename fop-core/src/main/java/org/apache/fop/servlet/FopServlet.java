@@ -19,6 +19,7 @@
 
 package org.apache.fop.servlet;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -28,6 +29,7 @@ import java.net.URL;
 
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -36,6 +38,8 @@ import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.apache.xmlgraphics.io.Resource;
 import org.apache.xmlgraphics.io.ResourceResolver;
@@ -71,7 +75,18 @@ import jakarta.servlet.http.HttpServletResponse;
  * <br>
  * For this to work with Internet Explorer, you might need to append "ext=.pdf"
  * to the URL.
- * (todo) Ev. add caching mechanism for Templates objects
+ * <br>
+ * Servlet init params are:
+ * <ul>
+ *   <li>templates-cache-size: the number of compiled XSLT stylesheets to keep
+ *   (default: 32, 0 disables the cache). Only stylesheets in the file system are
+ *   checked for modifications, others are kept until they are evicted. The cache, and with
+ *   it its hit and miss counts, is published as the servlet context attribute
+ *   {@link #TEMPLATES_CACHE_ATTRIBUTE} followed by the servlet name.</li>
+ *   <li>stream-output: if "true", the PDF is written to the response while it is being
+ *   produced instead of being buffered first to set the Content-Length header
+ *   (default: false)</li>
+ * </ul>
  */
 public class FopServlet extends HttpServlet {
 
@@ -84,12 +99,31 @@ public class FopServlet extends HttpServlet {
     /** Name of the parameter used for the XSLT file */
     protected static final String XSLT_REQUEST_PARAM = "xslt";
 
+    /** Name of the init parameter for the size of the stylesheet cache */
+    protected static final String TEMPLATES_CACHE_SIZE_INIT_PARAM = "templates-cache-size";
+    /** Name of the init parameter enabling streaming of the response */
+    protected static final String STREAM_OUTPUT_INIT_PARAM = "stream-output";
+
+    /**
+     * Prefix of the servlet context attribute holding the {@link TemplatesCache}, the servlet
+     * name is appended to it
+     */
+    public static final String TEMPLATES_CACHE_ATTRIBUTE = FopServlet.class.getName() + ".templatesCache.";
+
+    private static final int DEFAULT_TEMPLATES_CACHE_SIZE = 32;
+
+    private static final Log LOG = LogFactory.getLog(FopServlet.class);
+
     /** The TransformerFactory used to create Transformer instances */
     protected TransformerFactory transFactory;
     /** The FopFactory used to create Fop instances */
     protected FopFactory fopFactory;
     /** URIResolver for use by this servlet */
     protected transient URIResolver uriResolver;
+    /** Cache for compiled stylesheets, null if disabled */
+    protected transient TemplatesCache templatesCache;
+    /** True if the output is written directly to the response */
+    protected boolean streamOutput;
 
     /**
      * {@inheritDoc}
@@ -100,6 +134,22 @@ public class FopServlet extends HttpServlet {
         transFactory.setAttribute("http://javax.xml.XMLConstants/property/accessExternalDTD", "");
         transFactory.setAttribute("http://javax.xml.XMLConstants/property/accessExternalStylesheet", "");
         this.transFactory.setURIResolver(this.uriResolver);
+        String cacheSize = getInitParameter(TEMPLATES_CACHE_SIZE_INIT_PARAM);
+        int maxTemplates = DEFAULT_TEMPLATES_CACHE_SIZE;
+        if (cacheSize != null) {
+            try {
+                maxTemplates = Integer.parseInt(cacheSize.trim());
+            } catch (NumberFormatException nfe) {
+                throw new ServletException("Invalid value for init param "
+                        + TEMPLATES_CACHE_SIZE_INIT_PARAM + ": " + cacheSize);
+            }
+        }
+        if (maxTemplates > 0) {
+            this.templatesCache = new TemplatesCache(this.transFactory, maxTemplates);
+            getServletContext().setAttribute(TEMPLATES_CACHE_ATTRIBUTE + getServletName(),
+                    templatesCache);
+        }
+        this.streamOutput = Boolean.parseBoolean(getInitParameter(STREAM_OUTPUT_INIT_PARAM));
         //Configure FopFactory as desired
         // TODO: Double check this behaves properly!!
         ResourceResolver resolver = new ResourceResolver() {
@@ -117,6 +167,16 @@ public class FopServlet extends HttpServlet {
         fopFactory = builder.build();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void destroy() {
+        if (templatesCache != null) {
+            getServletContext().removeAttribute(TEMPLATES_CACHE_ATTRIBUTE + getServletName());
+        }
+        super.destroy();
+    }
+
     /**
      * This method is called right after the FopFactory is instantiated and can be overridden
      * by subclasses to perform additional configuration.
@@ -225,13 +285,42 @@ public class FopServlet extends HttpServlet {
         Source xsltSrc = convertString2Source(xslt);
 
         //Setup the XSL transformation
-        Transformer transformer = this.transFactory.newTransformer(xsltSrc);
+        Transformer transformer = newTransformer(xsltSrc);
         transformer.setURIResolver(this.uriResolver);
 
         //Start transformation and rendering process
         render(xmlSrc, transformer, response);
     }
 
+    /**
+     * Creates a Transformer for the given stylesheet, using the compiled stylesheet
+     * from the cache if possible.
+     * @param xsltSrc the XSLT stylesheet
+     * @return a new Transformer
+     * @throws TransformerException if the stylesheet cannot be compiled
+     */
+    protected Transformer newTransformer(Source xsltSrc) throws TransformerException {
+        if (templatesCache == null) {
+            return this.transFactory.newTransformer(xsltSrc);
+        }
+        long start = System.currentTimeMillis();
+        Templates templates = templatesCache.getTemplates(xsltSrc);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Stylesheet " + xsltSrc.getSystemId() + " obtained in "
+                    + (System.currentTimeMillis() - start) + " ms (cache hits: "
+                    + templatesCache.getHitCount() + ", misses: " + templatesCache.getMissCount() + ")");
+        }
+        return templates.newTransformer();
+    }
+
+    /**
+     * Returns the cache of compiled stylesheets, for example to inspect its hit rate.
+     * @return the cache or null if caching is disabled
+     */
+    public TemplatesCache getTemplatesCache() {
+        return templatesCache;
+    }
+
     /**
      * Renders an input file (XML or XSL-FO) into a PDF file. It uses the JAXP
      * transformer given to optionally transform the input document to XSL-FO.
@@ -251,21 +340,36 @@ public class FopServlet extends HttpServlet {
                 throws FOPException, TransformerException, IOException {
 
         FOUserAgent foUserAgent = getFOUserAgent();
+        long start = System.currentTimeMillis();
 
-        //Setup output
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (streamOutput) {
+            response.setContentType("application/pdf");
+            OutputStream out = new BufferedOutputStream(response.getOutputStream());
 
-        //Setup FOP
-        Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, foUserAgent, out);
+            Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, foUserAgent, out);
+            Result res = new SAXResult(fop.getDefaultHandler());
+            transformer.transform(src, res);
+            out.flush();
+        } else {
+            //Setup output
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        //Make sure the XSL transformation's result is piped through to FOP
-        Result res = new SAXResult(fop.getDefaultHandler());
+            //Setup FOP
+            Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, foUserAgent, out);
 
-        //Start the transformation and rendering process
-        transformer.transform(src, res);
+            //Make sure the XSL transformation's result is piped through to FOP
+            Result res = new SAXResult(fop.getDefaultHandler());
 
-        //Return the result
-        sendPDF(out.toByteArray(), response);
+            //Start the transformation and rendering process
+            transformer.transform(src, res);
+
+            //Return the result
+            sendPDF(out.toByteArray(), response);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Rendered " + src.getSystemId() + " in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
     }
 
     /** @return a new FOUserAgent for FOP */
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.servlet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * A bounded, thread-safe cache of compiled stylesheets ({@link Templates} objects).
+ * Entries are keyed by the system ID of the stylesheet source. For stylesheets loaded
+ * from the file system ("file:" system IDs) the last-modified time is also checked, so an
+ * edited stylesheet is compiled again on its next use. Stylesheets with any other system ID
+ * (e.g. resources inside a web archive) are assumed not to change: they stay cached until
+ * they are evicted or {@link #clear()} is called. When the cache is full, the least
+ * recently used entry is dropped.
+ */
+public class TemplatesCache {
+
+    private final TransformerFactory transFactory;
+    private final Map<String, CacheEntry> cache;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new cache.
+     * @param transFactory the TransformerFactory used to compile the stylesheets
+     * @param maxEntries the maximum number of compiled stylesheets to keep
+     */
+    public TemplatesCache(TransformerFactory transFactory, final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.transFactory = transFactory;
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4329512318569587211L;
+
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled stylesheet for the given source, compiling it if it is
+     * not in the cache or, for "file:" system IDs, has been modified since it was cached.
+     * Sources without a system ID are compiled every time.
+     * @param xsltSrc the stylesheet source
+     * @return the compiled stylesheet
+     * @throws TransformerConfigurationException if the stylesheet cannot be compiled
+     */
+    public Templates getTemplates(Source xsltSrc) throws TransformerConfigurationException {
+        String systemId = xsltSrc.getSystemId();
+        if (systemId == null) {
+            return transFactory.newTemplates(xsltSrc);
+        }
+        long lastModified = getLastModified(systemId);
+        synchronized (cache) {
+            CacheEntry entry = cache.get(systemId);
+            if (entry != null && entry.lastModified == lastModified) {
+                hits++;
+                closeSource(xsltSrc);
+                return entry.templates;
+            }
+            misses++;
+        }
+        //Compile outside the lock so other stylesheets can still be served meanwhile
+        Templates templates = transFactory.newTemplates(xsltSrc);
+        synchronized (cache) {
+            cache.put(systemId, new CacheEntry(templates, lastModified));
+        }
+        return templates;
+    }
+
+    /** Removes all compiled stylesheets from the cache. */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /** @return the number of compiled stylesheets currently in the cache */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /** @return the number of requests served from the cache */
+    public long getHitCount() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+
+    /** @return the number of requests which required a stylesheet to be compiled */
+    public long getMissCount() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+
+    private static long getLastModified(String systemId) {
+        if (systemId.startsWith("file:")) {
+            try {
+                return new File(new URI(systemId)).lastModified();
+            } catch (URISyntaxException e) {
+                return 0;
+            } catch (IllegalArgumentException e) {
+                return 0;
+            }
+        }
+        //Other resources (e.g. inside a web archive) are not expected to change
+        return 0;
+    }
+
+    private static void closeSource(Source src) {
+        if (src instanceof StreamSource) {
+            StreamSource streamSource = (StreamSource) src;
+            try {
+                InputStream in = streamSource.getInputStream();
+                if (in != null) {
+                    in.close();
+                }
+                Reader reader = streamSource.getReader();
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException ioe) {
+                //ignore, the stream is not used anymore
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final Templates templates;
+        private final long lastModified;
+
+        CacheEntry(Templates templates, long lastModified) {
+            this.templates = templates;
+            this.lastModified = lastModified;
+        }
+    }
+}
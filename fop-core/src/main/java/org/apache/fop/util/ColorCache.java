@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.util;
+
+import java.awt.Color;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size-bounded, thread-safe cache of parsed colors. Lookups do not lock. When the
+ * cache grows past its maximum size, entries which have not been used since the last
+ * sweep are evicted (second-chance or "clock" eviction) until it is back below the limit.
+ * <p>
+ * Important: The use of this cache assumes that all Color instances are immutable!
+ */
+final class ColorCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private final int maxSize;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     * @param maxSize the maximum number of colors to keep
+     */
+    ColorCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached color for the given string.
+     * @param key the color string
+     * @return the color or null if it is not cached
+     */
+    Color get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.referenced = true;
+        hits.incrementAndGet();
+        return entry.color;
+    }
+
+    /**
+     * Adds a color to the cache, evicting unused entries if the cache is full.
+     * @param key the color string
+     * @param color the parsed color
+     */
+    void put(String key, Color color) {
+        entries.put(key, new Entry(color));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            //Another thread is already sweeping
+            return;
+        }
+        try {
+            int target = maxSize - maxSize / 4;
+            //The first pass clears the reference bits, the second evicts what was not used since
+            for (int pass = 0; pass < 2 && entries.size() > target; pass++) {
+                Iterator<Entry> iter = entries.values().iterator();
+                while (iter.hasNext() && entries.size() > target) {
+                    Entry entry = iter.next();
+                    if (entry.referenced) {
+                        entry.referenced = false;
+                    } else {
+                        iter.remove();
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /** @return the number of colors in the cache */
+    int size() {
+        return entries.size();
+    }
+
+    /** @return the number of lookups which found a color */
+    long getHitCount() {
+        return hits.get();
+    }
+
+    /** @return the number of lookups which did not find a color */
+    long getMissCount() {
+        return misses.get();
+    }
+
+    private static final class Entry {
+
+        private final Color color;
+        private volatile boolean referenced;
+
+        Entry(Color color) {
+            this.color = color;
+        }
+    }
+}
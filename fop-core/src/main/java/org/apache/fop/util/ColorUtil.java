@@ -26,7 +26,6 @@ import java.awt.color.ICC_Profile;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -68,15 +67,19 @@ public final class ColorUtil {
     public static final String ALPHA_PSEUDO_PROFILE = "#alpha";
 
     /**
-     * Keeps all the predefined and parsed colors.
-     * <p>
-     * This map is used to predefine given colors, as well as speeding up
-     * parsing of already parsed colors.
+     * Keeps all the predefined (named) colors. The map is only modified during class
+     * initialization.
      * <p>
      * Important: The use of this color map assumes that all Color instances are immutable!
      */
     private static Map<String, Color> colorMap;
 
+    /** The maximum number of parsed colors to keep in {@link #PARSED_COLORS}. */
+    private static final int PARSED_COLORS_CACHE_SIZE = 1024;
+
+    /** Speeds up parsing of already parsed colors. */
+    private static final ColorCache PARSED_COLORS = new ColorCache(PARSED_COLORS_CACHE_SIZE);
+
     /** Logger instance */
     private static final Log log = LogFactory.getLog(ColorUtil.class);
 
@@ -123,6 +126,9 @@ public final class ColorUtil {
         }
 
         Color parsedColor = colorMap.get(value.toLowerCase());
+        if (parsedColor == null) {
+            parsedColor = PARSED_COLORS.get(value);
+        }
 
         if (parsedColor == null) {
             if (value.startsWith("#")) {
@@ -152,12 +158,29 @@ public final class ColorUtil {
                 throw new PropertyException("Unknown Color: " + value);
             }
 
-            colorMap.put(value, parsedColor);
+            PARSED_COLORS.put(value, parsedColor);
         }
 
         return parsedColor;
     }
 
+    /**
+     * Returns the number of parsed color strings which were found in the color cache.
+     * @return the cache hit count
+     */
+    public static long getColorCacheHitCount() {
+        return PARSED_COLORS.getHitCount();
+    }
+
+    /**
+     * Returns the number of parsed color strings which had to be parsed because they
+     * were not in the color cache.
+     * @return the cache miss count
+     */
+    public static long getColorCacheMissCount() {
+        return PARSED_COLORS.getMissCount();
+    }
+
     /**
      * Tries to parse a color given with the system-color() function.
      *
@@ -852,7 +875,7 @@ public final class ColorUtil {
      * Initializes the colorMap with some predefined values.
      */
     private static void initializeColorMap() {
-        colorMap = Collections.synchronizedMap(new java.util.HashMap<String, Color>());
+        colorMap = new java.util.HashMap<String, Color>();
 
         colorMap.put("aliceblue", createColor(240, 248, 255));
         colorMap.put("antiquewhite", createColor(250, 235, 215));
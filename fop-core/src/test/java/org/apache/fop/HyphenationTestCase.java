@@ -28,6 +28,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.apache.commons.io.IOUtils;
 
@@ -75,6 +76,18 @@ public class HyphenationTestCase {
         f.delete();
     }
 
+    @Test
+    public void testHyphenatedWordCache() throws HyphenationException {
+        HyphenationTree hTree = new HyphenationTree();
+        hTree.loadPatterns(new File("test/resources/fop/fr.xml").getAbsolutePath());
+        Hyphenation hyph = hTree.hyphenate("hello", 0, 0);
+        assertEquals("-hel-lo", hyph.toString());
+        assertSame(hyph, hTree.hyphenate("hello", 0, 0));
+        assertEquals("hel-lo", hTree.hyphenate("hello", 1, 0).toString());
+        assertNull(hTree.hyphenate("hello", 3, 3));
+        assertNull(hTree.hyphenate("hello", 3, 3));
+    }
+
     @Test
     public void testHyphenatorCache() throws IOException {
         File f = File.createTempFile("hyp", "fop");
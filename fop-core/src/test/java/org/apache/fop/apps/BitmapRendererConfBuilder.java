@@ -23,6 +23,7 @@ import org.apache.fop.apps.FopConfBuilder.RendererConfBuilder;
 
 import static org.apache.fop.render.bitmap.BitmapRendererOption.ANTI_ALIASING;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.BACKGROUND_COLOR;
+import static org.apache.fop.render.bitmap.BitmapRendererOption.BACKGROUND_ENCODING;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.COLOR_MODE;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.JAVA2D_TRANSPARENT_PAGE_BACKGROUND;
 import static org.apache.fop.render.bitmap.BitmapRendererOption.RENDERING_QUALITY_ELEMENT;
@@ -62,6 +63,11 @@ public class BitmapRendererConfBuilder extends RendererConfBuilder {
         return this;
     }
 
+    public BitmapRendererConfBuilder setBackgroundEncoding(boolean backgroundEncoding) {
+        createTextElement(BACKGROUND_ENCODING, String.valueOf(backgroundEncoding));
+        return this;
+    }
+
     public static String getMimeType() {
         return "Bitmap";
     }
@@ -218,6 +218,21 @@ public class FopConfBuilder implements FontConfigurator<FopConfBuilder> {
         return createElement("use-cache", String.valueOf(enableFontCaching));
     }
 
+    /**
+     * Sets whether font subsets are shared between documents.
+     *
+     * @param enableSubsetCaching true to enable the font subset cache
+     * @param maxBytes the memory budget of the cache
+     * @return <b>this</b>
+     */
+    public FopConfBuilder setFontSubsetCache(boolean enableSubsetCaching, long maxBytes) {
+        Element el = fopConfDOM.createElement("font-subset-cache");
+        el.setAttribute("max-bytes", String.valueOf(maxBytes));
+        el.appendChild(fopConfDOM.createTextNode(String.valueOf(enableSubsetCaching)));
+        root.appendChild(el);
+        return this;
+    }
+
     /**
      * Starts a renderer specific config builder.
      *
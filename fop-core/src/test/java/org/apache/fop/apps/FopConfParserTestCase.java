@@ -30,6 +30,7 @@ import org.xml.sax.SAXException;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -141,6 +142,19 @@ public class FopConfParserTestCase {
         assertTrue(buildFactory().getRendererFactory().isRendererPreferred());
     }
 
+    @Test
+    public void testFontSubsetCache() {
+        assertNull(buildFactory().getFontManager().getFontSubsetCache());
+        builder.setFontSubsetCache(true, 1024);
+        assertEquals(1024, buildFactory().getFontManager().getFontSubsetCache().getMaxBytes());
+    }
+
+    @Test
+    public void testFontSubsetCacheDisabled() {
+        builder.setFontSubsetCache(false, 1024);
+        assertNull(buildFactory().getFontManager().getFontSubsetCache());
+    }
+
     @Test
     public void testRelativeURINoBaseNoFont() throws Exception {
         checkRelativeURIs("test/config/relative-uri/no-base_no-font.xconf",
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/* $Id$ */
+
+package org.apache.fop.area;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@linkplain PageViewport} class.
+ */
+public class PageViewportTestCase {
+
+    @Test
+    public void testIDResolvedWhileSavePending() throws Exception {
+        PageViewport viewport = new PageViewport(new Rectangle(0, 0, 100, 100), 1, "1", "page", false);
+        viewport.setPage(new Page());
+        viewport.addUnresolvedIDRef("target", new RecordingResolvable("target"));
+
+        Page detached = viewport.detachPage();
+        //The layout thread resolves the reference while the page is being written
+        viewport.resolveIDRef("target", Collections.singletonList(viewport));
+        assertTrue(detached.getUnresolvedReferences().containsKey("target"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(detached);
+        out.close();
+
+        final List<RecordingResolvable> loaded = new ArrayList<RecordingResolvable>();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())) {
+            {
+                enableResolveObject(true);
+            }
+
+            protected Object resolveObject(Object obj) throws IOException {
+                if (obj instanceof RecordingResolvable) {
+                    loaded.add((RecordingResolvable) obj);
+                }
+                return obj;
+            }
+        };
+        viewport.loadPage(in);
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isResolved());
+        assertTrue(viewport.isResolved());
+    }
+
+    private static class RecordingResolvable implements Resolvable, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String idref;
+
+        private boolean resolved;
+
+        RecordingResolvable(String idref) {
+            this.idref = idref;
+        }
+
+        public boolean isResolved() {
+            return resolved;
+        }
+
+        public String[] getIDRefs() {
+            return new String[] {idref};
+        }
+
+        public void resolveIDRef(String id, List<PageViewport> pages) {
+            resolved = idref.equals(id) && !pages.isEmpty();
+        }
+    }
+}
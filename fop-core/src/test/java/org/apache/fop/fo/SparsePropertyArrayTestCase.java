@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+
+package org.apache.fop.fo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.apache.fop.fo.properties.NumberProperty;
+import org.apache.fop.fo.properties.Property;
+
+/**
+ * Tests {@link SparsePropertyArray}.
+ */
+public class SparsePropertyArrayTestCase {
+
+    @Test
+    public void testEmpty() {
+        SparsePropertyArray array = new SparsePropertyArray();
+        assertNull(array.get(Constants.PR_FONT_SIZE));
+        array.put(Constants.PR_FONT_SIZE, null);
+        assertNull(array.get(Constants.PR_FONT_SIZE));
+        assertEquals(0, array.size());
+    }
+
+    @Test
+    public void testPutAndGetAllProperties() {
+        SparsePropertyArray array = new SparsePropertyArray();
+        Property[] expected = new Property[Constants.PROPERTY_COUNT + 1];
+        //Insert in an order that is not sequential to exercise probing and growing
+        for (int propId = Constants.PROPERTY_COUNT; propId >= 0; propId -= 3) {
+            expected[propId] = NumberProperty.getInstance(propId);
+            array.put(propId, expected[propId]);
+        }
+        for (int propId = 0; propId <= Constants.PROPERTY_COUNT; propId++) {
+            assertSame(expected[propId], array.get(propId));
+        }
+    }
+
+    @Test
+    public void testReplace() {
+        SparsePropertyArray array = new SparsePropertyArray();
+        Property first = NumberProperty.getInstance(1);
+        Property second = NumberProperty.getInstance(2);
+        array.put(Constants.PR_COLOR, first);
+        array.put(Constants.PR_COLOR, second);
+        assertSame(second, array.get(Constants.PR_COLOR));
+        assertEquals(1, array.size());
+        array.put(Constants.PR_COLOR, null);
+        assertNull(array.get(Constants.PR_COLOR));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.fonts;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.apache.fop.apps.io.InternalResourceResolver;
+import org.apache.fop.apps.io.ResourceResolverFactory;
+
+public class FontAdderTestCase {
+
+    private static final String[] FONTS = {
+        "Aegean600.ttf", "AndroidEmoji.ttf", "DejaVuLGCSerif.ttf", "DroidSansMono.ttf", "glb12.ttf"
+    };
+
+    private final InternalResourceResolver rr
+            = ResourceResolverFactory.createDefaultInternalResourceResolver(new File(".").toURI());
+
+    private FontAdder newFontAdder(int threadCount) {
+        FontManager manager = new FontManager(rr, mock(FontDetector.class),
+                mock(FontCacheManager.class));
+        FontAdder adder = new FontAdder(manager, rr, null);
+        adder.setThreadCount(threadCount);
+        return adder;
+    }
+
+    private List<EmbedFontInfo> addFonts(int threadCount) throws Exception {
+        return addFonts(newFontAdder(threadCount));
+    }
+
+    private List<EmbedFontInfo> addFonts(FontAdder adder) throws Exception {
+        return addFonts(adder, FONTS.length);
+    }
+
+    private List<EmbedFontInfo> addFonts(FontAdder adder, int fontCount) throws Exception {
+        List<URL> fontURLs = new ArrayList<URL>();
+        for (String font : Arrays.copyOf(FONTS, fontCount)) {
+            fontURLs.add(new File("test/resources/fonts/ttf/" + font).toURI().toURL());
+        }
+        List<EmbedFontInfo> fontInfos = new ArrayList<EmbedFontInfo>();
+        adder.add(fontURLs, fontInfos);
+        return fontInfos;
+    }
+
+    @Test
+    public void testParallelDetectionKeepsOrder() throws Exception {
+        List<EmbedFontInfo> sequential = addFonts(1);
+        List<EmbedFontInfo> parallel = addFonts(4);
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getEmbedURI(), parallel.get(i).getEmbedURI());
+            assertEquals(sequential.get(i).getPostScriptName(), parallel.get(i).getPostScriptName());
+        }
+    }
+
+    @Test
+    public void testParallelDetectionWithPartlyFilledCache() throws Exception {
+        File cacheFile = File.createTempFile("fop-fonts", ".cache");
+        cacheFile.delete();
+        FontManager manager = new FontManager(rr, mock(FontDetector.class),
+                FontCacheManagerFactory.createDefault());
+        manager.setCacheFile(cacheFile.toURI());
+        FontAdder adder = new FontAdder(manager, rr, null);
+        adder.setThreadCount(1);
+        addFonts(adder, 2);
+        adder.setThreadCount(4);
+        List<EmbedFontInfo> parallel = addFonts(adder);
+        List<EmbedFontInfo> sequential = addFonts(1);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getEmbedURI(), parallel.get(i).getEmbedURI());
+        }
+    }
+
+    @Test
+    public void testFontAdderCanBeReused() throws Exception {
+        FontAdder adder = newFontAdder(4);
+        List<EmbedFontInfo> first = addFonts(adder);
+        List<EmbedFontInfo> second = addFonts(adder);
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getEmbedURI(), second.get(i).getEmbedURI());
+        }
+    }
+
+    @Test
+    public void testInterruptionIsKept() throws Exception {
+        FontAdder adder = newFontAdder(4);
+        Thread.currentThread().interrupt();
+        try {
+            addFonts(adder);
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
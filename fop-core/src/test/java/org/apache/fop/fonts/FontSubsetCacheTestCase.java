@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.fonts;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FontSubsetCacheTestCase {
+
+    private static final URI FONT = URI.create("file:/fonts/DejaVuLGCSerif.ttf");
+
+    private static Map<Integer, Integer> glyphs(int... pairs) {
+        Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.put(pairs[i], pairs[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void testExactGlyphMappingRequired() {
+        FontSubsetCache cache = new FontSubsetCache();
+        byte[] subset = new byte[10];
+        cache.put(FONT, null, glyphs(0, 0, 36, 1, 72, 2), subset);
+
+        assertSame(subset, cache.get(FONT, null, glyphs(72, 2, 0, 0, 36, 1)));
+        //same glyphs, different subset indices
+        assertNull(cache.get(FONT, null, glyphs(0, 0, 36, 2, 72, 1)));
+        //subset of the glyphs
+        assertNull(cache.get(FONT, null, glyphs(0, 0, 36, 1)));
+        //other member of a collection
+        assertNull(cache.get(FONT, "DejaVu Sans", glyphs(0, 0, 36, 1, 72, 2)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        FontSubsetCache cache = new FontSubsetCache(100);
+        cache.put(FONT, null, glyphs(0, 0, 1, 1), new byte[40]);
+        cache.put(FONT, null, glyphs(0, 0, 2, 1), new byte[40]);
+        cache.get(FONT, null, glyphs(0, 0, 1, 1));
+        cache.put(FONT, null, glyphs(0, 0, 3, 1), new byte[40]);
+
+        assertEquals(2, cache.getEntryCount());
+        assertEquals(80, cache.getSize());
+        assertNull(cache.get(FONT, null, glyphs(0, 0, 2, 1)));
+
+        cache.put(FONT, null, glyphs(0, 0, 4, 1), new byte[101]);
+        assertEquals(2, cache.getEntryCount());
+    }
+}
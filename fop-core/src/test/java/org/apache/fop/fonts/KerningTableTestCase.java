@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.fonts;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class KerningTableTestCase {
+
+    @Test
+    public void testLookup() {
+        Map<Integer, Map<Integer, Integer>> kerning = new HashMap<Integer, Map<Integer, Integer>>();
+        Map<Integer, Integer> v = new HashMap<Integer, Integer>();
+        v.put((int) 'o', -80);
+        v.put((int) 'A', -120);
+        kerning.put((int) 'V', v);
+        Map<Integer, Integer> a = new HashMap<Integer, Integer>();
+        a.put((int) 'V', -110);
+        a.put(0x4E00, 15);
+        kerning.put((int) 'A', a);
+        kerning.put(0x10000, null);
+
+        KerningTable table = KerningTable.build(kerning);
+        assertEquals(4, table.size());
+        assertEquals(-80, table.getKernValue('V', 'o'));
+        assertEquals(-120, table.getKernValue('V', 'A'));
+        assertEquals(-110, table.getKernValue('A', 'V'));
+        assertEquals(15, table.getKernValue('A', 0x4E00));
+        assertEquals(0, table.getKernValue('o', 'V'));
+        assertEquals(0, table.getKernValue('V', 'V'));
+    }
+
+    @Test
+    public void testNullValue() {
+        Map<Integer, Map<Integer, Integer>> kerning = new HashMap<Integer, Map<Integer, Integer>>();
+        Map<Integer, Integer> t = new HashMap<Integer, Integer>();
+        t.put((int) 'o', -60);
+        t.put((int) 'a', null);
+        kerning.put((int) 'T', t);
+
+        KerningTable table = KerningTable.build(kerning);
+        assertEquals(1, table.size());
+        assertEquals(-60, table.getKernValue('T', 'o'));
+        assertEquals(0, table.getKernValue('T', 'a'));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSame(KerningTable.EMPTY, KerningTable.build(null));
+        assertSame(KerningTable.EMPTY, KerningTable.build(new HashMap<Integer, Map<Integer, Integer>>()));
+        assertEquals(0, KerningTable.EMPTY.getKernValue('A', 'V'));
+    }
+}
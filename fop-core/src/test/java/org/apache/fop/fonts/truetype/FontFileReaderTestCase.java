@@ -301,4 +301,25 @@ public class FontFileReaderTestCase {
         byte[] retrievedBytes = fontReader.getBytes(0, 256);
         assertTrue(Arrays.equals(byteArray, retrievedBytes));
     }
+
+    /**
+     * Test copyBytes()
+     * @throws IOException exception
+     */
+    @Test
+    public void testCopyBytes() throws IOException {
+        byte[] dest = new byte[12];
+        fontReader.copyBytes(250, dest, 2, 6);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(byteArray[250 + i], dest[2 + i]);
+        }
+        assertEquals(0, dest[0]);
+        assertEquals(0, dest[8]);
+        try {
+            fontReader.copyBytes(251, dest, 0, 6);
+            fail("FontFileReaderTest testCopyBytes Fails.");
+        } catch (IOException e) {
+            // Pass
+        }
+    }
 }
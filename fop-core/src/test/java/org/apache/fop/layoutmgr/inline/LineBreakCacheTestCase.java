@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.layoutmgr.inline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.fop.layoutmgr.KnuthBox;
+import org.apache.fop.layoutmgr.KnuthElement;
+import org.apache.fop.layoutmgr.KnuthGlue;
+import org.apache.fop.layoutmgr.KnuthPenalty;
+
+public class LineBreakCacheTestCase {
+
+    private static final int[] PARAMETERS = {1, 2, 3};
+
+    private static List<KnuthElement> createParagraph(int wordWidth) {
+        List<KnuthElement> elements = new ArrayList<KnuthElement>();
+        elements.add(new KnuthBox(wordWidth, null, false));
+        elements.add(new KnuthGlue(3000, 1500, 1000, null, false));
+        elements.add(new KnuthBox(5000, null, false));
+        elements.add(new KnuthPenalty(0, KnuthElement.INFINITE, false, null, false));
+        elements.add(new KnuthGlue(0, 10000, 0, null, true));
+        elements.add(new KnuthPenalty(0, -KnuthElement.INFINITE, false, null, false));
+        return elements;
+    }
+
+    @Test
+    public void testKey() {
+        LineBreakCache cache = new LineBreakCache();
+        cache.put(LineBreakCache.createKey(createParagraph(4000), PARAMETERS),
+                new LineBreakCache.Result());
+
+        assertNotNull(cache.get(LineBreakCache.createKey(createParagraph(4000), PARAMETERS)));
+        assertNull(cache.get(LineBreakCache.createKey(createParagraph(4001), PARAMETERS)));
+        assertNull(cache.get(LineBreakCache.createKey(createParagraph(4000), new int[] {1, 2, 4})));
+        List<KnuthElement> flagged = createParagraph(4000);
+        flagged.set(3, new KnuthPenalty(0, KnuthElement.INFINITE, true, null, false));
+        assertFalse(LineBreakCache.createKey(createParagraph(4000), PARAMETERS).equals(
+                LineBreakCache.createKey(flagged, PARAMETERS)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testReplay() {
+        LineBreakCache.Result result = new LineBreakCache.Result();
+        result.addPossibility(2, 100.0);
+        result.addBreakPosition(0, 3, 5, 10, 20, 30, 0.5, 40, 50);
+        result.addBreakPosition(0, 0, 2, 11, 21, 31, -0.25, 41, 51);
+        result.savePossibilities();
+        result.restorePossibilities();
+
+        final StringBuilder sb = new StringBuilder();
+        result.replay(new LineBreakCache.Replayer() {
+            public void addPossibility(int lineCount, double demerits) {
+                sb.append("P" + lineCount + "/" + demerits + ";");
+            }
+
+            public void addBreakPosition(int possibility, int firstElementIndex,
+                    int lastElementIndex, int availableShrink, int availableStretch,
+                    int difference, double ratio, int startIndent, int endIndent) {
+                sb.append("B" + possibility + "," + firstElementIndex + "," + lastElementIndex
+                        + "," + availableShrink + "," + availableStretch + "," + difference
+                        + "," + ratio + "," + startIndent + "," + endIndent + ";");
+            }
+
+            public void savePossibilities() {
+                sb.append("S;");
+            }
+
+            public void restorePossibilities() {
+                sb.append("R;");
+            }
+        });
+        assertEquals("P2/100.0;B0,3,5,10,20,30,0.5,40,50;B0,0,2,11,21,31,-0.25,41,51;S;R;",
+                sb.toString());
+    }
+}
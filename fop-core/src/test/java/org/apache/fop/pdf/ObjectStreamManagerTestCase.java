@@ -19,12 +19,14 @@
 
 package org.apache.fop.pdf;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -49,13 +51,51 @@ public class ObjectStreamManagerTestCase {
         assertEquals(objectStreamNumber3, pdfDocument.previous.getObjectNumber().getNumber());
     }
 
-    private void createCompressObjectReferences(int numObjects) {
+    @Test
+    public void takeCompletedObjectStreams() {
+        final int expectedCapacity = 100;
+        ObjectStreamManager sut = createCompressObjectReferences(expectedCapacity * 2 + 1);
+        List<ObjectStream> completed = sut.takeCompletedObjectStreams();
+        assertEquals(2, completed.size());
+        assertEquals(getObjectStreamNumber(0), completed.get(0).getObjectNumber().getNumber());
+        assertEquals(getObjectStreamNumber(expectedCapacity), completed.get(1).getObjectNumber().getNumber());
+        assertTrue(sut.takeCompletedObjectStreams().isEmpty());
+    }
+
+    @Test
+    public void startEncoding() throws IOException {
+        byte[] expected = outputFirstObjectStream(false);
+        assertArrayEquals(expected, outputFirstObjectStream(true));
+    }
+
+    private byte[] outputFirstObjectStream(boolean startEncoding) throws IOException {
+        pdfDocument = new MockPdfDocument();
+        //Always use a worker thread, whatever the number of processors
+        ObjectStreamManager sut = new ObjectStreamManager(pdfDocument, 1);
+        for (int i = 0; i <= 100; i++) {
+            PDFDictionary dictionary = new PDFDictionary();
+            dictionary.put("Index", i);
+            pdfDocument.assignObjectNumber(dictionary);
+            sut.add(dictionary);
+        }
+        ObjectStream objectStream = sut.takeCompletedObjectStreams().get(0);
+        if (startEncoding) {
+            assertTrue(sut.startEncoding(objectStream));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        objectStream.output(out);
+        sut.shutdown();
+        return out.toByteArray();
+    }
+
+    private ObjectStreamManager createCompressObjectReferences(int numObjects) {
         pdfDocument = new MockPdfDocument();
         ObjectStreamManager sut = new ObjectStreamManager(pdfDocument);
         for (int obNum = 1; obNum <= numObjects; obNum++) {
             sut.add(createCompressedObject(obNum));
         }
         compressedObjectReferences = sut.getCompressedObjectReferences();
+        return sut;
     }
 
     private static class MockPdfDocument extends PDFDocument {
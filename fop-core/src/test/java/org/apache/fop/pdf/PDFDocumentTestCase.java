@@ -21,10 +21,19 @@ package org.apache.fop.pdf;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Test case for {@link PDFDocument}
@@ -59,4 +68,39 @@ public class PDFDocumentTestCase {
         PDFDocument.flushTextBuffer(textBuffer, out);
         assertEquals(fullString, out.toString());
     }
+
+    private static PDFImage createImage(String key, final byte[] data) throws IOException {
+        PDFImage img = mock(PDFImage.class);
+        when(img.getKey()).thenReturn(key);
+        when(img.getWidth()).thenReturn(2);
+        when(img.getHeight()).thenReturn(2);
+        when(img.getBitsPerComponent()).thenReturn(8);
+        when(img.getColorSpace()).thenReturn(
+                new PDFDeviceColorSpace(PDFDeviceColorSpace.DEVICE_GRAY));
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws IOException {
+                ((OutputStream) invocation.getArguments()[0]).write(data);
+                return null;
+            }
+        }).when(img).outputContents(any(OutputStream.class));
+        return img;
+    }
+
+    @Test
+    public void testImageDeduplication() throws IOException {
+        PDFDocument doc = new PDFDocument("test");
+        doc.setImageDeduplicationEnabled(true);
+        PDFImageXObject first = doc.addImage(null, createImage("file:a.png", new byte[] {1, 2, 3, 4}));
+        PDFImageXObject second = doc.addImage(null,
+                createImage("data:image/png;base64,AQIDBA==", new byte[] {1, 2, 3, 4}));
+        PDFImageXObject third = doc.addImage(null, createImage("file:b.png", new byte[] {4, 3, 2, 1}));
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertSame(first, doc.getXObject("data:image/png;base64,AQIDBA=="));
+
+        doc = new PDFDocument("test");
+        first = doc.addImage(null, createImage("file:a.png", new byte[] {1, 2, 3, 4}));
+        second = doc.addImage(null, createImage("file:c.png", new byte[] {1, 2, 3, 4}));
+        assertNotSame(first, second);
+    }
 }
@@ -42,6 +42,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -455,6 +456,20 @@ public class PDFEncryptionJCETestCase {
         runEncryptionTests();
     }
 
+    @Test
+    public void testEncryptDifferentObjects() {
+        PDFEncryptionParams params = new PDFEncryptionParams();
+        params.setEncryptionLengthInBits(128);
+        encryptionObject = createEncryptionObject(params);
+        byte[] data = {0x01, 0x02, 0x03, 0x04, 0x05};
+        byte[] first = encryptionObject.encrypt(data, createText(1));
+        byte[] second = encryptionObject.encrypt(data, createText(2));
+        assertFalse(Arrays.equals(first, second));
+        assertArrayEquals(first, encryptionObject.encrypt(data, createText(1)));
+        PDFEncryptionJCE other = createEncryptionObject(params);
+        assertArrayEquals(second, other.encrypt(data, createText(2)));
+    }
+
     @Test
     public void testAES256() throws UnsupportedEncodingException, NoSuchAlgorithmException,
             NoSuchPaddingException, InvalidKeyException, InvalidAlgorithmParameterException,
@@ -612,6 +627,12 @@ public class PDFEncryptionJCETestCase {
         return (PDFEncryptionJCE) PDFEncryptionJCE.make(new PDFObjectNumber(1), params, doc);
     }
 
+    private PDFText createText(int objectNumber) {
+        PDFText text = new PDFText();
+        text.setObjectNumber(objectNumber);
+        return text;
+    }
+
     private void runEncryptionTests() throws IOException {
         encryptionObject = createEncryptionObject(test.getEncryptionParameters());
         runEncryptTest();
@@ -19,9 +19,21 @@
 
 package org.apache.fop.pdf;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
 import org.junit.Test;
 
+import org.apache.commons.io.IOUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class PDFFilterListTestCase {
 
@@ -30,4 +42,57 @@ public class PDFFilterListTestCase {
         PDFFilterList filterList = new PDFFilterList();
         assertFalse(filterList.isInitialized());
     }
+
+    @Test
+    public void testFlateWithCompressionLevel() throws IOException {
+        PDFFilterList filterList = new PDFFilterList();
+        filterList.addFilter("flate-1");
+        assertTrue(filterList.isInitialized());
+        FlateFilter filter = (FlateFilter) filterList.getFilters().get(0);
+        assertEquals(Deflater.BEST_SPEED, filter.getCompressionLevel());
+        assertEquals("/FlateDecode", filter.getName());
+
+        byte[] data = "BT /F1 12 Tf 10 10 Td (Hello World) Tj ET\n".getBytes("US-ASCII");
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        OutputStream out = filterList.applyFilters(bout);
+        for (int i = 0; i < 100; i++) {
+            out.write(data);
+        }
+        out.close();
+        byte[] inflated = IOUtils.toByteArray(
+                new InflaterInputStream(new ByteArrayInputStream(bout.toByteArray())));
+        assertEquals(data.length * 100, inflated.length);
+        byte[] first = new byte[data.length];
+        System.arraycopy(inflated, 0, first, 0, data.length);
+        assertArrayEquals(data, first);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFlateCompressionLevel() {
+        new PDFFilterList().addFilter("flate-fast");
+    }
+
+    @Test
+    public void testFlateWithStrategy() {
+        PDFFilterList filterList = new PDFFilterList();
+        filterList.addFilter("flate-6-filtered");
+        filterList.addFilter("flate-9-huffman-only");
+        filterList.addFilter("flate-1-default");
+        filterList.addFilter("flate-1");
+        FlateFilter filter = (FlateFilter) filterList.getFilters().get(0);
+        assertEquals(6, filter.getCompressionLevel());
+        assertEquals(Deflater.FILTERED, filter.getStrategy());
+        filter = (FlateFilter) filterList.getFilters().get(1);
+        assertEquals(Deflater.BEST_COMPRESSION, filter.getCompressionLevel());
+        assertEquals(Deflater.HUFFMAN_ONLY, filter.getStrategy());
+        filter = (FlateFilter) filterList.getFilters().get(2);
+        assertEquals(Deflater.DEFAULT_STRATEGY, filter.getStrategy());
+        filter = (FlateFilter) filterList.getFilters().get(3);
+        assertEquals(Deflater.DEFAULT_STRATEGY, filter.getStrategy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFlateStrategy() {
+        new PDFFilterList().addFilter("flate-6-fastest");
+    }
 }
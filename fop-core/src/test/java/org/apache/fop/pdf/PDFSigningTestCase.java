@@ -30,6 +30,15 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
+import org.bouncycastle.asn1.ASN1InputStream;
+import org.bouncycastle.asn1.cms.ContentInfo;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cms.CMSProcessableByteArray;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.CMSSignerDigestMismatchException;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.util.encoders.Hex;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -81,9 +90,45 @@ public class PDFSigningTestCase {
         String endStr = new String(end);
         Assert.assertTrue(endStr.contains(
                 "/ByteRange [0 " + startOfContents + " " + endOfContents + " " + sizeOfEnd + "]"));
+        verifySignature(out.toByteArray(), startOfContents, endOfContents, sizeOfEnd);
         return endStr;
     }
 
+    /**
+     * Checks that the signature in /Contents matches the bytes covered by /ByteRange.
+     */
+    private void verifySignature(byte[] pdf, int startOfContents, int endOfContents, int sizeOfEnd)
+            throws Exception {
+        ByteArrayOutputStream signedContent = new ByteArrayOutputStream();
+        signedContent.write(pdf, 0, startOfContents);
+        signedContent.write(pdf, endOfContents, sizeOfEnd);
+        //Skip the '<' and '>' delimiters of the hex string, the zero padding follows the CMS data
+        byte[] contents = Hex.decode(new String(pdf, startOfContents + 1,
+                endOfContents - startOfContents - 2, "US-ASCII"));
+        ASN1InputStream asn1 = new ASN1InputStream(contents);
+        ContentInfo contentInfo = ContentInfo.getInstance(asn1.readObject());
+        asn1.close();
+        CMSSignedData signedData = new CMSSignedData(
+                new CMSProcessableByteArray(signedContent.toByteArray()), contentInfo);
+        SignerInformation signer = signedData.getSignerInfos().getSigners().iterator().next();
+        X509CertificateHolder cert = (X509CertificateHolder) signedData.getCertificates()
+                .getMatches(signer.getSID()).iterator().next();
+        Assert.assertTrue(signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(cert)));
+
+        //Changing a single signed byte must break the signature
+        byte[] tampered = signedContent.toByteArray();
+        tampered[tampered.length - 1] ^= 1;
+        signedData = new CMSSignedData(new CMSProcessableByteArray(tampered), contentInfo);
+        signer = signedData.getSignerInfos().getSigners().iterator().next();
+        boolean verified;
+        try {
+            verified = signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(cert));
+        } catch (CMSSignerDigestMismatchException e) {
+            verified = false;
+        }
+        Assert.assertFalse(verified);
+    }
+
     private void foToOutput(ByteArrayOutputStream out, boolean objectStreams) throws Exception {
         FopFactory fopFactory = getFopFactory(objectStreams);
         FOUserAgent userAgent = fopFactory.newFOUserAgent();
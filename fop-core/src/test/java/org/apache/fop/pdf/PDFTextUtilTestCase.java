@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.pdf;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the text operators written by {@link PDFTextUtil}.
+ */
+public class PDFTextUtilTestCase {
+
+    private final StringBuilder out = new StringBuilder();
+
+    private final PDFTextUtil textUtil = new PDFTextUtil() {
+        protected void write(String code) {
+            out.append(code);
+        }
+        protected void write(StringBuffer code) {
+            out.append(code);
+        }
+    };
+
+    @Test
+    public void testSingleByteText() {
+        textUtil.beginTextObject();
+        textUtil.updateTf("F1", 12, false, false);
+        textUtil.writeTJMappedChar('a');
+        textUtil.writeTJMappedChar('(');
+        textUtil.writeTJMappedCodePoint(0xE9);
+        textUtil.writeTJMappedCodePoint(7);
+        textUtil.writeTJ();
+        textUtil.endTextObject();
+        assertEquals("BT\n/F1 12 Tf\n[(a\\(\\351\\7)] TJ\nET\n", out.toString());
+    }
+
+    @Test
+    public void testMultiByteText() {
+        textUtil.beginTextObject();
+        textUtil.updateTf("F2", 10, true, false);
+        textUtil.writeTJMappedCodePoint('A');
+        textUtil.writeTJMappedCodePoint(0x4E2D);
+        textUtil.writeTJMappedCodePoint(0x1F600);
+        textUtil.writeTJ();
+        textUtil.updateTf("F1", 12, false, false);
+        textUtil.writeTJMappedChar('b');
+        textUtil.writeTJ();
+        textUtil.endTextObject();
+        assertEquals("BT\n/F2 10 Tf\n[<00414E2D01F600>] TJ\n/F1 12 Tf\n[(b)] TJ\nET\n", out.toString());
+    }
+}
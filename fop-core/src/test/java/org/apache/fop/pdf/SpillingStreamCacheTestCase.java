@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.pdf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingStreamCacheTestCase {
+
+    @After
+    public void tearDown() {
+        StreamCacheFactory.setDefaultSpillThreshold(-1);
+    }
+
+    @Test
+    public void testInMemoryByDefault() throws IOException {
+        StreamCacheFactory.setDefaultSpillThreshold(-1);
+        assertTrue(StreamCacheFactory.getInstance().createStreamCache() instanceof InMemoryStreamCache);
+    }
+
+    @Test
+    public void testSpillToFile() throws IOException {
+        StreamCacheFactory.setDefaultSpillThreshold(16);
+        StreamCacheFactory factory = StreamCacheFactory.getInstance();
+        SpillingStreamCache cache = (SpillingStreamCache) factory.createStreamCache();
+        OutputStream out = cache.getOutputStream();
+        byte[] data = new byte[40];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        out.write(data, 0, 10);
+        out.write(10);
+        assertFalse(cache.isSpilled());
+        assertEquals(11, cache.getSize());
+        out.write(data, 11, 29);
+        assertTrue(cache.isSpilled());
+        assertEquals(40, cache.getSize());
+        out.close();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        assertEquals(40, cache.outputContents(result));
+        assertArrayEquals(data, result.toByteArray());
+        cache.clear();
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testSpilledContentsCanBeReadTwice() throws IOException {
+        StreamCacheFactory.setDefaultSpillThreshold(16);
+        SpillingStreamCache cache = (SpillingStreamCache) StreamCacheFactory.getInstance().createStreamCache();
+        byte[] data = new byte[40];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        cache.write(data);
+        assertTrue(cache.isSpilled());
+
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        assertEquals(40, cache.outputContents(first));
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        assertEquals(40, cache.outputContents(second));
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+        assertArrayEquals(data, second.toByteArray());
+
+        //Writing after a read appends to the contents
+        cache.write(new byte[] {40});
+        assertEquals(41, cache.getSize());
+        ByteArrayOutputStream third = new ByteArrayOutputStream();
+        assertEquals(41, cache.outputContents(third));
+        assertEquals(40, third.toByteArray()[40]);
+        cache.clear();
+    }
+
+    @Test
+    public void testOutputReleasesSpilledStream() throws IOException {
+        StreamCacheFactory.setDefaultSpillThreshold(16);
+        int tempFiles = countTempFiles();
+        PDFDocument doc = new PDFDocument("test");
+        PDFStream small = new PDFStream();
+        small.add("0 g");
+        PDFStream large = new PDFStream();
+        large.setData(new byte[40]);
+        doc.registerObject(small);
+        doc.registerObject(large);
+        assertEquals(tempFiles + 1, countTempFiles());
+
+        small.output(new ByteArrayOutputStream());
+        large.output(new ByteArrayOutputStream());
+        assertEquals(tempFiles, countTempFiles());
+        assertEquals(43, doc.getBufferedStreamBytes());
+        assertEquals(1, doc.getSpilledStreamCount());
+        assertEquals(40, doc.getSpilledStreamBytes());
+    }
+
+    private static int countTempFiles() {
+        String[] names = new File(System.getProperty("java.io.tmpdir")).list();
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith("org.apache.fop.pdf.StreamCache-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -102,6 +102,18 @@ public class AbstractBitmapRendererConfigParserTester
         assertTrue(conf.isRenderHighQuality());
     }
 
+    @Test
+    public void testBackgroundEncoding() throws Exception {
+        parseConfig(createRenderer().setBackgroundEncoding(true));
+        assertTrue(conf.isBackgroundEncodingEnabled());
+
+        parseConfig(createRenderer().setBackgroundEncoding(false));
+        assertFalse(conf.isBackgroundEncodingEnabled());
+
+        parseConfig(createRenderer());
+        assertFalse(conf.isBackgroundEncodingEnabled());
+    }
+
     @Test
     public void testColorModes() throws Exception {
         parseConfig(createRenderer().setColorMode(COLOR_MODE_RGBA.getName()));
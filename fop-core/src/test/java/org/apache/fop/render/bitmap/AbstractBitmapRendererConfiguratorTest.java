@@ -97,6 +97,15 @@ public abstract class AbstractBitmapRendererConfiguratorTest extends
         assertTrue(settings.isQualityRenderingEnabled());
     }
 
+    @Test
+    public void testBackgroundEncoding() throws Exception {
+        parseConfig(createBuilder().setBackgroundEncoding(true));
+        assertTrue(settings.isBackgroundEncodingEnabled());
+
+        parseConfig(createBuilder().setBackgroundEncoding(false));
+        assertFalse(settings.isBackgroundEncodingEnabled());
+    }
+
     @Test
     public void testColorModes() throws Exception {
         parseConfig(createBuilder().setColorMode(COLOR_MODE_RGBA.getName()));
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/* $Id$ */
+
+package org.apache.fop.render.bitmap;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.RenderedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.transform.stream.StreamResult;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.xmlgraphics.image.writer.ImageWriter;
+import org.apache.xmlgraphics.image.writer.ImageWriterRegistry;
+import org.apache.xmlgraphics.image.writer.MultiImageWriter;
+
+import org.apache.fop.apps.FOUserAgent;
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.fonts.FontInfo;
+import org.apache.fop.render.intermediate.IFContext;
+import org.apache.fop.render.intermediate.IFException;
+import org.apache.fop.render.intermediate.IFPainter;
+
+/**
+ * Tests the background encoding of pages in {@link AbstractBitmapDocumentHandler}.
+ */
+public class BitmapBackgroundEncodingTestCase {
+
+    private static final int PAGE_COUNT = 5;
+
+    private static final String FAILING_MIME_TYPE = "image/x-fop-failing-test";
+
+    @Test
+    public void testBackgroundEncodingKeepsPageOrder() throws Exception {
+        byte[] sequential = render(createHandler(false));
+        byte[] background = render(createHandler(true));
+        assertTrue(sequential.length > 0);
+        assertArrayEquals(sequential, background);
+    }
+
+    @Test
+    public void testEncodingErrorIsReported() throws Exception {
+        MultiImageWriter multiImageWriter = mock(MultiImageWriter.class);
+        doThrow(new IOException("Encoding failed"))
+                .when(multiImageWriter).writeImage(any(RenderedImage.class), any());
+        ImageWriter imageWriter = mock(ImageWriter.class);
+        when(imageWriter.getMIMEType()).thenReturn(FAILING_MIME_TYPE);
+        when(imageWriter.isFunctional()).thenReturn(true);
+        when(imageWriter.supportsMultiImageWriter()).thenReturn(true);
+        when(imageWriter.createMultiImageWriter(any(OutputStream.class))).thenReturn(multiImageWriter);
+        //The registry cannot unregister writers, this one is only found under its own MIME type
+        ImageWriterRegistry.getInstance().register(imageWriter);
+        try {
+            TIFFDocumentHandler handler = new TIFFDocumentHandler(createContext()) {
+                public String getMimeType() {
+                    return FAILING_MIME_TYPE;
+                }
+            };
+            handler.getSettings().setBackgroundEncoding(true);
+            render(handler);
+            fail("The encoding error must reach the caller");
+        } catch (IFException ife) {
+            assertTrue(ife.getCause() instanceof IOException);
+        }
+    }
+
+    private static IFContext createContext() {
+        FOUserAgent userAgent = FopFactory.newInstance(new File(".").toURI()).newFOUserAgent();
+        return new IFContext(userAgent);
+    }
+
+    private static TIFFDocumentHandler createHandler(boolean backgroundEncoding) {
+        TIFFDocumentHandler handler = new TIFFDocumentHandler(createContext());
+        handler.getSettings().setBackgroundEncoding(backgroundEncoding);
+        return handler;
+    }
+
+    private static byte[] render(AbstractBitmapDocumentHandler handler) throws IFException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        handler.setResult(new StreamResult(out));
+        handler.setFontInfo(new FontInfo());
+        handler.startDocument();
+        handler.endDocumentHeader();
+        handler.startPageSequence(null);
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            handler.startPage(i, String.valueOf(i + 1), "page", new Dimension(20000, 20000));
+            IFPainter painter = handler.startPageContent();
+            //Every page looks different so pages written out of order would be noticed
+            painter.fillRect(new Rectangle(0, 0, 4000 * (i + 1), 10000), new Color(40 * i, 0, 0));
+            handler.endPageContent();
+            handler.endPage();
+        }
+        handler.endPageSequence();
+        handler.endDocument();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/* $Id$ */
+
+package org.apache.fop.render.pdf;
+
+import java.awt.color.ColorSpace;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.io.FileUtils;
+
+import org.apache.xmlgraphics.image.loader.ImageInfo;
+import org.apache.xmlgraphics.image.loader.ImageSize;
+import org.apache.xmlgraphics.image.loader.impl.ImageRawJPEG;
+import org.apache.xmlgraphics.image.loader.impl.JPEGConstants;
+
+import org.apache.fop.pdf.PDFDocument;
+import org.apache.fop.pdf.PDFImageXObject;
+
+public class ImageRawJPEGAdapterTestCase {
+
+    @Test
+    public void testDeduplicationWithSingleUseStream() throws IOException {
+        byte[] jpeg = FileUtils.readFileToByteArray(new File("test/resources/fop/image/logo.jpg"));
+        PDFDocument doc = new PDFDocument("test");
+        doc.setImageDeduplicationEnabled(true);
+        PDFImageXObject first = doc.addImage(null, createAdapter("file:a.jpg", jpeg));
+        PDFImageXObject second = doc.addImage(null, createAdapter("file:b.jpg", jpeg));
+        assertSame(first, second);
+
+        //The image data was read to compare the images, it must still be written
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.output(out);
+        String pdf = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.contains(new String(jpeg, StandardCharsets.ISO_8859_1)));
+    }
+
+    private static ImageRawJPEGAdapter createAdapter(String uri, byte[] jpeg) {
+        ImageInfo info = new ImageInfo(uri, "image/jpeg");
+        ImageSize size = new ImageSize(10, 10, 72);
+        size.calcSizeFromPixels();
+        info.setSize(size);
+        //Images loaded from a stream can only be read once
+        ImageRawJPEG image = new ImageRawJPEG(info, new ByteArrayInputStream(jpeg), JPEGConstants.SOF0,
+                ColorSpace.getInstance(ColorSpace.CS_sRGB), null, false);
+        return new ImageRawJPEGAdapter(image, uri);
+    }
+}
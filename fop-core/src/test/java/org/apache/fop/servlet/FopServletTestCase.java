@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/* $Id$ */
+
+package org.apache.fop.servlet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+
+public class FopServletTestCase {
+
+    private static final String ATTRIBUTE = FopServlet.TEMPLATES_CACHE_ATTRIBUTE + "fop";
+
+    private static ServletConfig createConfig(ServletContext context, String cacheSize) {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getServletContext()).thenReturn(context);
+        when(config.getServletName()).thenReturn("fop");
+        when(config.getInitParameter(FopServlet.TEMPLATES_CACHE_SIZE_INIT_PARAM)).thenReturn(cacheSize);
+        return config;
+    }
+
+    @Test
+    public void testTemplatesCacheIsPublished() throws Exception {
+        ServletContext context = mock(ServletContext.class);
+        FopServlet servlet = new FopServlet();
+        servlet.init(createConfig(context, null));
+        assertNotNull(servlet.getTemplatesCache());
+        verify(context).setAttribute(ATTRIBUTE, servlet.getTemplatesCache());
+        servlet.destroy();
+        verify(context).removeAttribute(ATTRIBUTE);
+    }
+
+    @Test
+    public void testDisabledTemplatesCacheIsNotPublished() throws Exception {
+        ServletContext context = mock(ServletContext.class);
+        FopServlet servlet = new FopServlet();
+        servlet.init(createConfig(context, "0"));
+        assertNull(servlet.getTemplatesCache());
+        verify(context, never()).setAttribute(anyString(), any());
+    }
+}
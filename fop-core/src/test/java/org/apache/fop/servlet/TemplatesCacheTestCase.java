@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/* $Id$ */
+
+package org.apache.fop.servlet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.io.FileUtils;
+
+public class TemplatesCacheTestCase {
+
+    private static final String STYLESHEET
+            = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+            + "<xsl:template match=\"/\">%s</xsl:template></xsl:stylesheet>";
+
+    private final List<File> files = new ArrayList<File>();
+
+    @After
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private File createStylesheet(String content) throws IOException {
+        File file = File.createTempFile("TemplatesCacheTestCase", ".xsl");
+        files.add(file);
+        FileUtils.writeStringToFile(file, String.format(STYLESHEET, content), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static TemplatesCache createCache(int maxEntries) {
+        return new TemplatesCache(TransformerFactory.newInstance(), maxEntries);
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        TemplatesCache cache = createCache(4);
+        File xslt = createStylesheet("a");
+        Templates first = cache.getTemplates(new StreamSource(xslt));
+        assertSame(first, cache.getTemplates(new StreamSource(xslt)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testMiss() throws Exception {
+        TemplatesCache cache = createCache(4);
+        Templates first = cache.getTemplates(new StreamSource(createStylesheet("a")));
+        Templates second = cache.getTemplates(new StreamSource(createStylesheet("b")));
+        assertNotSame(first, second);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testSourceWithoutSystemIdIsNotCached() throws Exception {
+        TemplatesCache cache = createCache(4);
+        cache.getTemplates(new StreamSource(new StringReader(String.format(STYLESHEET, "a"))));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        TemplatesCache cache = createCache(2);
+        File a = createStylesheet("a");
+        File b = createStylesheet("b");
+        File c = createStylesheet("c");
+        Templates templatesA = cache.getTemplates(new StreamSource(a));
+        Templates templatesB = cache.getTemplates(new StreamSource(b));
+        assertSame(templatesA, cache.getTemplates(new StreamSource(a)));
+        cache.getTemplates(new StreamSource(c));
+        assertEquals(2, cache.size());
+
+        //b was used least recently and has been dropped, a is still cached
+        assertSame(templatesA, cache.getTemplates(new StreamSource(a)));
+        assertNotSame(templatesB, cache.getTemplates(new StreamSource(b)));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testModifiedStylesheetIsReloaded() throws Exception {
+        TemplatesCache cache = createCache(4);
+        File xslt = createStylesheet("a");
+        Templates first = cache.getTemplates(new StreamSource(xslt));
+        long lastModified = xslt.lastModified();
+        FileUtils.writeStringToFile(xslt, String.format(STYLESHEET, "b"), StandardCharsets.UTF_8);
+        //Do not rely on the file system's timestamp resolution
+        xslt.setLastModified(lastModified + 2000);
+        Templates second = cache.getTemplates(new StreamSource(xslt));
+        assertNotSame(first, second);
+        assertSame(second, cache.getTemplates(new StreamSource(xslt)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testOtherSystemIdsAreNotChecked() throws Exception {
+        TemplatesCache cache = createCache(4);
+        String systemId = "jar:file:/fop.war!/xslt/a.xsl";
+        StreamSource source = new StreamSource(new StringReader(String.format(STYLESHEET, "a")), systemId);
+        Templates first = cache.getTemplates(source);
+        source = new StreamSource(new StringReader(String.format(STYLESHEET, "b")), systemId);
+        assertSame(first, cache.getTemplates(source));
+    }
+}
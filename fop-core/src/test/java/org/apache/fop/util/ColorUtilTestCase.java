@@ -29,6 +29,8 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.apache.xmlgraphics.java2d.color.ColorSpaces;
@@ -344,4 +346,29 @@ public class ColorUtilTestCase {
         assertEquals(colActual2.getAlternativeColors()[0].getAlpha(), 102);
         assertEquals(ColorUtil.colorToString(colActual2), colSpec);
     }
+
+    @Test
+    public void testParsedColorIsCached() throws Exception {
+        String colSpec = "rgb(12,34,56)";
+        Color first = ColorUtil.parseColorString(null, colSpec);
+        long hits = ColorUtil.getColorCacheHitCount();
+        assertSame(first, ColorUtil.parseColorString(null, colSpec));
+        assertEquals(hits + 1, ColorUtil.getColorCacheHitCount());
+    }
+
+    @Test
+    public void testColorCacheIsBounded() {
+        ColorCache cache = new ColorCache(8);
+        cache.put("#000000", Color.BLACK);
+        for (int i = 1; i < 20; i++) {
+            //Keep the first entry in use so it survives eviction
+            assertSame(Color.BLACK, cache.get("#000000"));
+            cache.put("#0000" + (10 + i), new Color(0, 0, 10 + i));
+        }
+        assertTrue(cache.size() <= 8);
+        assertSame(Color.BLACK, cache.get("#000000"));
+        assertNull(cache.get("#ffffff"));
+        assertEquals(20, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
 }